@@ -0,0 +1,57 @@
+#!/bin/sh
+# Brings an existing global table to the layout of global-dynamodb-table.yml one table update at a time, since
+# CloudFormation rejects an update that creates or deletes more than one GSI, and only changes the stream settings
+# of a global table with a single replica. Each step is a separate stack update that waits until the table is
+# ACTIVE again; a failed step rolls back on its own and can be rerun with
+#
+#   ./migrate-global-table.sh <step>
+#
+# single-replica deletes the backup region's replica, new-and-old-images switches the stream to NEW_AND_OLD_IMAGES
+# and backup-replica creates the replica again from the primary. Until then the backup region has no table, so run
+# this in a maintenance window and not during a failover. The stream gets a new ARN, which the API stack takes as
+# its DynamoDBStreamArn parameter.
+#
+# The API must be deployed (sam deploy) after recycle-index and before complete, which drops OwnerIndex.
+#
+# Parameters: DYNAMODB_GLOBAL_TABLE, BACKUP_REGION and REGION (the primary region, default eu-central-1).
+set -eu
+
+STEPS="single-replica new-and-old-images backup-replica owner-date-index type-date-index recycle-index"
+REGION=${REGION:-eu-central-1}
+FROM=${1:-single-replica}
+
+deploy() {
+    echo "Table rollout step: $1"
+    aws cloudformation deploy \
+        --template-file "$(dirname "$0")/global-dynamodb-table.yml" \
+        --stack-name "global-dynamodb-table" \
+        --capabilities CAPABILITY_IAM CAPABILITY_NAMED_IAM \
+        --parameter-overrides \
+            BackupRegion="${BACKUP_REGION}" \
+            DynamoDBGlobalTable="${DYNAMODB_GLOBAL_TABLE}" \
+            RolloutStep="$1" \
+        --no-fail-on-empty-changeset \
+        --region "${REGION}"
+}
+
+if [ "$FROM" = "complete" ]; then
+    deploy complete
+    exit 0
+fi
+
+case " $STEPS " in
+    *" $FROM "*) ;;
+    *) echo "Unknown step $FROM; steps are: $STEPS complete" >&2; exit 2 ;;
+esac
+
+started=false
+for step in $STEPS; do
+    [ "$step" = "$FROM" ] && started=true
+    if $started; then
+        deploy "$step"
+    fi
+done
+
+STREAM_ARN=$(aws cloudformation describe-stacks --stack-name "global-dynamodb-table" --region "${REGION}" \
+    --query "Stacks[0].Outputs[?OutputKey=='GlobalDynamoDBTableStreamArn'].OutputValue" --output text)
+echo "Deploy the API now (sam deploy) with DynamoDBStreamArn=${STREAM_ARN}, then finish with: $0 complete"
@@ -0,0 +1,95 @@
+package org.example.event;
+
+import com.amazonaws.services.lambda.runtime.events.CognitoUserPoolPostConfirmationEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The event codecs against the data binding they replaced: events read into a {@code Map}, logged with
+ * {@code toString()}, converted with {@code convertValue} and written back from a {@code Map}. Run with
+ * {@code -prof gc} to compare the bytes allocated per invocation ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventCodecBenchmark {
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {
+    };
+    private static final byte[] OBJECT_CREATED = ("{\"version\":\"0\",\"id\":\"17793124-05d4-b198-2fde-7ededc63b103\","
+            + "\"detail-type\":\"Object Created\",\"source\":\"aws.s3\",\"account\":\"123456789012\",\"time\":\"2025-01-01T12:00:00Z\","
+            + "\"region\":\"eu-central-1\",\"resources\":[\"arn:aws:s3:::photo-blog-staging\"],\"detail\":{\"version\":\"0\","
+            + "\"bucket\":{\"name\":\"photo-blog-staging\"},\"object\":{\"key\":\"3f2c8a4e-7d1b-4c55-9a0e-2b6f1d9c8e71\","
+            + "\"size\":524288,\"etag\":\"b1946ac92492d2347c6235b4d2611184\",\"sequencer\":\"00617F08299329D189\"},"
+            + "\"request-id\":\"N4N7GDK58NMKJ12R\",\"requester\":\"123456789012\",\"source-ip-address\":\"203.0.113.15\","
+            + "\"reason\":\"PutObject\"}}").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] POST_CONFIRMATION = ("{\"version\":\"1\",\"region\":\"eu-central-1\",\"userPoolId\":\"eu-central-1_EXAMPLE\","
+            + "\"userName\":\"8a6c2f4e-0b1d-4e7a-9c3f-5d2e1b0a9f87\",\"callerContext\":{\"awsSdkVersion\":\"aws-sdk-unknown-unknown\","
+            + "\"clientId\":\"1example23456789\"},\"triggerSource\":\"PostConfirmation_ConfirmSignUp\",\"request\":{\"userAttributes\":"
+            + "{\"sub\":\"8a6c2f4e-0b1d-4e7a-9c3f-5d2e1b0a9f87\",\"email_verified\":\"true\",\"cognito:user_status\":\"CONFIRMED\","
+            + "\"name\":\"Jane Doe\",\"email\":\"jane.doe@example.com\"}},\"response\":{}}").getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final ImageProcessingEvent retryEvent = new ImageProcessingEvent("photo-blog-staging",
+            "3f2c8a4e-7d1b-4c55-9a0e-2b6f1d9c8e71", "jane.doe@example.com", "Jane Doe", null);
+
+    @Benchmark
+    public ImageProcessingEvent readObjectCreatedWithCodec() throws IOException {
+        return ImageProcessingEventCodec.read(new ByteArrayInputStream(OBJECT_CREATED));
+    }
+
+    @Benchmark
+    public String readObjectCreatedAsMap() throws IOException {
+        Map<String, Object> event = objectMapper.readValue(OBJECT_CREATED, MAP);
+        return event.toString();
+    }
+
+    @Benchmark
+    public String writeRetryWithCodec() throws IOException {
+        return ImageProcessingEventCodec.writeRetry(retryEvent, 1);
+    }
+
+    @Benchmark
+    public String writeRetryFromMap() throws IOException {
+        Map<String, Object> event = new HashMap<>();
+        event.put("bucketName", retryEvent.bucketName());
+        event.put("objectKey", retryEvent.objectKey());
+        event.put("email", retryEvent.email());
+        event.put("fullName", retryEvent.fullName());
+        event.put("workflowType", ImageProcessingEventCodec.RETRY_WORKFLOW);
+        event.put("retryAttempt", 1);
+        return objectMapper.writeValueAsString(event);
+    }
+
+    @Benchmark
+    public CognitoTriggerEvent readPostConfirmationWithCodec() throws IOException {
+        return CognitoTriggerEventCodec.read(POST_CONFIRMATION);
+    }
+
+    @Benchmark
+    public CognitoUserPoolPostConfirmationEvent readPostConfirmationWithConvertValue() throws IOException {
+        Map<String, Object> event = objectMapper.readValue(POST_CONFIRMATION, MAP);
+        event.toString();
+        return objectMapper.convertValue(event, CognitoUserPoolPostConfirmationEvent.class);
+    }
+}
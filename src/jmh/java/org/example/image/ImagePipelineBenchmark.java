@@ -0,0 +1,146 @@
+package org.example.image;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode, watermark and encode steps of the image processing Lambda on a generated corpus, per format and
+ * resolution. Throughput and sampled latency (p99) are reported for every step; add {@code -prof gc} for the
+ * allocation rate. 8192x6144 (50 MP) is decoded with subsampling, like in the Lambda, so the later steps see the
+ * reduced image.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx2g"})
+public class ImagePipelineBenchmark {
+    @Param({"JPEG", "PNG", "GIF", "BMP"})
+    private ImageFormat format;
+
+    @Param({"640x480", "1920x1080", "4032x3024", "8192x6144"})
+    private String resolution;
+
+    private byte[] encoded;
+    private BufferedImage decoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] dimensions = resolution.split("x");
+        BufferedImage source = generate(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageEncoder.encode(source, format, outputStream);
+        encoded = outputStream.toByteArray();
+
+        decoded = decode();
+    }
+
+    @Benchmark
+    public BufferedImage decode() throws IOException {
+        InputStream inputStream = new BufferedInputStream(new ByteArrayInputStream(encoded));
+        ImageInfo imageInfo = ImageProbe.probe(inputStream);
+        BufferedImage image = ImageDecoder.decode(inputStream, imageInfo, ImageDecoder.DEFAULT_MAX_OUTPUT_PIXELS);
+        return ImageOrientation.normalize(image, imageInfo.orientation());
+    }
+
+    @Benchmark
+    public BufferedImage watermark(WatermarkTarget target) {
+        target.watermarkRenderer.apply(target.image, "Jane Doe", target.date);
+        return target.image;
+    }
+
+    @Benchmark
+    public long encode() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        ImageEncoder.encode(decoded, format, outputStream);
+        return outputStream.count;
+    }
+
+    /**
+     * Gradients with seeded noise, so every format has realistic work to do and runs are comparable.
+     */
+    private static BufferedImage generate(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(30, 90, 160), width, height, new Color(230, 180, 60)));
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int noise = random.nextInt(16);
+                image.setRGB(x, y, image.getRGB(x, y) ^ (noise << 16 | noise << 8 | noise));
+            }
+        }
+        return image;
+    }
+
+    /**
+     * A copy of the decoded image for the watermark step. Before every invocation the corner the watermark covers is
+     * restored and the timestamp moves on by a second, as it does between uploads, so the renderer cannot reuse the
+     * previous call's text.
+     */
+    @State(Scope.Thread)
+    public static class WatermarkTarget {
+        private BufferedImage image;
+        private Raster corner;
+        private WatermarkRenderer watermarkRenderer;
+        private LocalDateTime date;
+
+        @Setup
+        public void setUp(ImagePipelineBenchmark benchmark) {
+            BufferedImage decoded = benchmark.decoded;
+            image = new BufferedImage(decoded.getColorModel(), decoded.copyData(null), decoded.isAlphaPremultiplied(), null);
+            int cornerHeight = image.getHeight() / 8;
+            corner = image.getData(new Rectangle(0, image.getHeight() - cornerHeight, image.getWidth(), cornerHeight));
+            watermarkRenderer = new WatermarkRenderer();
+            date = LocalDateTime.of(2025, 1, 1, 12, 0);
+        }
+
+        @Setup(Level.Invocation)
+        public void nextInvocation() {
+            image.setData(corner);
+            date = date.plusSeconds(1);
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            count += length;
+        }
+    }
+}
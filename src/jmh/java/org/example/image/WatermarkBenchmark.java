@@ -0,0 +1,94 @@
+package org.example.image;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WatermarkRenderer} against the single-pass drawing it replaced, with a new timestamp on every invocation as
+ * in production. The corner the watermark covers is restored before each invocation, so every call draws onto the
+ * same pixels.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx1g"})
+public class WatermarkBenchmark {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm:ss");
+    private static final String NAME = "Jane Doe";
+
+    @Param({"1280x960", "4032x3024", "8192x6144"})
+    private String resolution;
+
+    private BufferedImage image;
+    private Raster corner;
+    private WatermarkRenderer watermarkRenderer;
+    private LocalDateTime date;
+
+    @Setup
+    public void setUp() {
+        String[] dimensions = resolution.split("x");
+        int width = Integer.parseInt(dimensions[0]);
+        int height = Integer.parseInt(dimensions[1]);
+        image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(30, 90, 160), width, height, new Color(230, 180, 60)));
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+
+        // The watermark stays within the bottom eighth of the image
+        int cornerHeight = height / 8;
+        corner = image.getData(new Rectangle(0, height - cornerHeight, width, cornerHeight));
+        watermarkRenderer = new WatermarkRenderer();
+        date = LocalDateTime.of(2025, 1, 1, 12, 0);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextInvocation() {
+        image.setData(corner);
+        date = date.plusSeconds(1);
+    }
+
+    @Benchmark
+    public BufferedImage renderer() {
+        watermarkRenderer.apply(image, NAME, date);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage singlePass() {
+        String text = NAME.toUpperCase() + " - " + DATE_FORMAT.format(date);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.BOLD, image.getWidth() / 40));
+
+        FontMetrics fontMetrics = graphics.getFontMetrics();
+        int x = image.getWidth() - fontMetrics.stringWidth(text) - 10;
+        int y = image.getHeight() - fontMetrics.getHeight() + fontMetrics.getAscent();
+
+        graphics.setColor(new Color(0, 0, 0, 128));
+        graphics.drawString(text, x + 2, y + 2);
+        graphics.setColor(new Color(255, 255, 255, 192));
+        graphics.drawString(text, x, y);
+        graphics.dispose();
+        return image;
+    }
+}
@@ -1,11 +1,10 @@
 package org.example;
 
 import com.amazonaws.services.lambda.runtime.Context;
-import com.amazonaws.services.lambda.runtime.RequestHandler;
-import com.amazonaws.services.lambda.runtime.events.CognitoUserPoolPostAuthenticationEvent;
-import com.amazonaws.services.lambda.runtime.events.CognitoUserPoolPostConfirmationEvent;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import org.example.config.AwsClientFactory;
+import org.example.event.CognitoTriggerEvent;
+import org.example.event.CognitoTriggerEventCodec;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
@@ -17,12 +16,16 @@ import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
 import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
 
-public class CognitoEventLambda implements RequestHandler<Map<String, Object>, Map<String, Object>> {
+public class CognitoEventLambda implements RequestStreamHandler {
+    private static final DateTimeFormatter LOGIN_TIME_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm");
 
     private final String dynamodbTable;
     private final String topicArn;
@@ -30,43 +33,41 @@ public class CognitoEventLambda implements RequestHandler<Map<String, Object>, M
     private final SnsClient snsClient;
     private final SqsClient sqsClient;
     private final DynamoDbClient dynamoDbClient;
-    private final ObjectMapper objectMapper;
 
     public CognitoEventLambda() {
-        snsClient = SnsClient.create();
-        sqsClient = SqsClient.create();
-        dynamoDbClient = DynamoDbClient.create();
+        AwsClientFactory clients = AwsClientFactory.fromEnvironment();
+        snsClient = clients.sns();
+        sqsClient = clients.sqs();
+        dynamoDbClient = clients.dynamoDb();
         topicArn = System.getenv("NOTIFICATION_TOPIC_ARN");
         taskQueue = System.getenv("TASK_QUEUE");
-        objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         dynamodbTable = System.getenv("DYNAMODB_TABLE");
     }
 
     @Override
-    public Map<String, Object> handleRequest(Map<String, Object> event, Context context) {
+    public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context) throws IOException {
+        byte[] payload = inputStream.readAllBytes();
+        CognitoTriggerEvent event = CognitoTriggerEventCodec.read(payload);
         context.getLogger().log("Event: " + event);
-        String triggerSource = (String) event.get("triggerSource");
 
         try {
-            if ("PostAuthentication_Authentication".equals(triggerSource)) {
-                CognitoUserPoolPostAuthenticationEvent authEvent = objectMapper.convertValue(event, CognitoUserPoolPostAuthenticationEvent.class);
-                sendLoginNotification(authEvent);
-            } else if ("PostConfirmation_ConfirmSignUp".equals(triggerSource)) {
-                CognitoUserPoolPostConfirmationEvent postConfirmationEvent = objectMapper.convertValue(event, CognitoUserPoolPostConfirmationEvent.class);
-                subscribeUserToSNS(postConfirmationEvent);
-                saveUser(postConfirmationEvent);
+            if (CognitoTriggerEvent.POST_AUTHENTICATION.equals(event.triggerSource())) {
+                sendLoginNotification(event);
+            } else if (CognitoTriggerEvent.POST_CONFIRMATION.equals(event.triggerSource())) {
+                subscribeUserToSNS(event);
+                saveUser(event);
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
-        return event;
+        // Cognito continues the flow only when it gets its event back
+        outputStream.write(payload);
     }
 
-    private void sendLoginNotification(CognitoUserPoolPostAuthenticationEvent event) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm");
-        String userEmail = event.getRequest().getUserAttributes().get("email");
+    private void sendLoginNotification(CognitoTriggerEvent event) {
+        String userEmail = event.email();
         String subject = "LOGIN ALERT";
-        String message = "A login was detected for your account on " + LocalDateTime.now().format(formatter);
+        String message = "A login was detected for your account on " + LocalDateTime.now().format(LOGIN_TIME_FORMAT);
 
         Map<String, MessageAttributeValue> attributes = new HashMap<>();
         attributes.put("email", MessageAttributeValue.builder().dataType("String").stringValue(userEmail).build());
@@ -82,8 +83,8 @@ public class CognitoEventLambda implements RequestHandler<Map<String, Object>, M
         sqsClient.sendMessage(sendMessageRequest);
     }
 
-    private void subscribeUserToSNS(CognitoUserPoolPostConfirmationEvent event) {
-        String userEmail = event.getRequest().getUserAttributes().get("email");
+    private void subscribeUserToSNS(CognitoTriggerEvent event) {
+        String userEmail = event.email();
         SubscribeRequest request = SubscribeRequest.builder()
                 .topicArn(topicArn)
                 .protocol("email")
@@ -93,9 +94,9 @@ public class CognitoEventLambda implements RequestHandler<Map<String, Object>, M
         snsClient.subscribe(request);
     }
 
-    private void saveUser(CognitoUserPoolPostConfirmationEvent event) {
-        String email = event.getRequest().getUserAttributes().get("email");
-        String fullName = event.getRequest().getUserAttributes().get("name");
+    private void saveUser(CognitoTriggerEvent event) {
+        String email = event.email();
+        String fullName = event.name();
         try {
             PutItemRequest putItemRequest = PutItemRequest.builder()
                     .tableName(dynamodbTable)
@@ -0,0 +1,77 @@
+package org.example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import org.example.config.AwsClientFactory;
+import org.example.event.ImageProcessingEvent;
+import org.example.event.ImageProcessingEventCodec;
+import org.example.event.ImageProcessingFailure;
+import org.example.event.SqsEventCodec;
+import org.example.event.SqsMessage;
+import org.example.model.UploadJobStatus;
+import org.example.util.UploadJobStatusUpdater;
+import org.example.util.UploadMetadata;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Consumes the on-failure destination of the image processing Lambda. Invocations that timed out, ran out of memory
+ * or crashed never reached the handler's own retry logic, so their upload job would stay in PROCESSING and their
+ * staged object would never be removed: the job is marked FAILED and the object deleted here. Both steps are
+ * idempotent, so a batch that fails is simply received again.
+ */
+public class ImageProcessingFailureLambda implements RequestStreamHandler {
+    private final S3Client s3Client;
+    private final UploadJobStatusUpdater jobStatusUpdater;
+
+    public ImageProcessingFailureLambda() {
+        AwsClientFactory clients = AwsClientFactory.fromEnvironment();
+        s3Client = clients.s3();
+        jobStatusUpdater = new UploadJobStatusUpdater(clients.dynamoDb(), System.getenv("DYNAMODB_TABLE"));
+    }
+
+    @Override
+    public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context) throws IOException {
+        for (SqsMessage message : SqsEventCodec.read(inputStream)) {
+            ImageProcessingFailure failure = ImageProcessingEventCodec.readFailure(message.body());
+            ImageProcessingEvent event = failure.event();
+            if (failure.handled()) {
+                context.getLogger().log("Already handled by the processing Lambda: " + event);
+                continue;
+            }
+
+            context.getLogger().log("Cleaning up after " + failure.errorType() + " (" + failure.errorMessage() + "): " + event);
+            String email = event.email() != null ? event.email() : findOwner(event);
+            if (email != null) {
+                jobStatusUpdater.update(event.objectKey(), email, UploadJobStatus.FAILED, "Image processing failed");
+            }
+            s3Client.deleteObject(DeleteObjectRequest.builder()
+                    .bucket(event.bucketName())
+                    .key(event.objectKey())
+                    .build());
+        }
+    }
+
+    /**
+     * The owner recorded on the staged object, or {@code null} when it is gone or was uploaded without one.
+     */
+    private String findOwner(ImageProcessingEvent event) {
+        try {
+            return s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(event.bucketName())
+                    .key(event.objectKey())
+                    .build()).metadata().get(UploadMetadata.EMAIL);
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+}
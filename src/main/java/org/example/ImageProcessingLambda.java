@@ -1,10 +1,27 @@
 package org.example;
 
 import com.amazonaws.services.lambda.runtime.Context;
-import com.amazonaws.services.lambda.runtime.RequestHandler;
-import com.google.gson.Gson;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import org.example.config.AwsClientFactory;
+import org.example.event.ImageProcessingEvent;
+import org.example.event.ImageProcessingEventCodec;
+import org.example.event.ImageProcessingFailure;
+import org.example.event.ImageProcessingResult;
+import org.example.image.ImageDecoder;
+import org.example.image.ImageEncoder;
+import org.example.image.ImageFormat;
+import org.example.image.ImageInfo;
+import org.example.image.ImageOrientation;
+import org.example.image.ImageProbe;
+import org.example.image.ImageResizer;
+import org.example.image.RenditionSpec;
+import org.example.image.WatermarkRenderer;
+import org.example.model.BlogPost;
+import org.example.model.UploadJobStatus;
+import org.example.util.S3UploadOutputStream;
+import org.example.util.UploadJobStatusUpdater;
+import org.example.util.UploadMetadata;
 import software.amazon.awssdk.core.ResponseInputStream;
-import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
@@ -12,29 +29,27 @@ import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
-import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
-import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.sfn.SfnClient;
 import software.amazon.awssdk.services.sfn.model.StartExecutionRequest;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
 import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.text.SimpleDateFormat;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
-public class ImageProcessingLambda implements RequestHandler<Map<String, Object>, Map<String, Object>> {
+public class ImageProcessingLambda implements RequestStreamHandler {
+    private static final String FULL_RENDITION = "full";
+    private static final int MAX_ATTEMPTS = 3;
 
     private final SfnClient sfnClient;
     private final S3Client s3Client;
@@ -45,50 +60,93 @@ public class ImageProcessingLambda implements RequestHandler<Map<String, Object>
     private final String stepFunctionArn;
     private final String dynamodbTable;
     private final String taskQueue;
+    private final List<RenditionSpec> renditionSpecs;
+    private final WatermarkRenderer watermarkRenderer;
+    private final UploadJobStatusUpdater jobStatusUpdater;
+    private final long maxInputPixels;
+    private final long maxOutputPixels;
 
     public ImageProcessingLambda() {
         System.setProperty("java.awt.headless", "true");
         System.setProperty("user.fontconfig.cache", "/tmp/.fontconfig");
-        sfnClient = SfnClient.create();
-        s3Client = S3Client.create();
-        dynamoDbClient = DynamoDbClient.create();
-        sqsClient = SqsClient.create();
+        AwsClientFactory clients = AwsClientFactory.fromEnvironment();
+        sfnClient = clients.sfn();
+        s3Client = clients.s3();
+        dynamoDbClient = clients.dynamoDb();
+        sqsClient = clients.sqs();
         primaryBucket = System.getenv("S3_BUCKET_PRIMARY");
         stepFunctionArn = System.getenv("STEP_FUNCTION_ARN");
         awsRegion = System.getenv("AWS_REGION");
         dynamodbTable = System.getenv("DYNAMODB_TABLE");
         taskQueue = System.getenv("TASK_QUEUE");
+        String renditions = System.getenv("IMAGE_RENDITIONS");
+        renditionSpecs = RenditionSpec.parse(renditions != null ? renditions : RenditionSpec.DEFAULT_RENDITIONS);
+        watermarkRenderer = new WatermarkRenderer();
+        jobStatusUpdater = new UploadJobStatusUpdater(dynamoDbClient, dynamodbTable);
+        String maxPixels = System.getenv("MAX_INPUT_PIXELS");
+        maxInputPixels = maxPixels != null ? Long.parseLong(maxPixels) : ImageProbe.DEFAULT_MAX_PIXELS;
+        String maxDecodedPixels = System.getenv("MAX_OUTPUT_PIXELS");
+        maxOutputPixels = maxDecodedPixels != null ? Long.parseLong(maxDecodedPixels) : ImageDecoder.DEFAULT_MAX_OUTPUT_PIXELS;
     }
 
-    public Map<String, Object> handleRequest(Map<String, Object> event, Context context) {
-        context.getLogger().log("Events: " + event.toString());
-        String bucketName = (String) event.get("bucketName");
-        String objectKey = (String) event.get("objectKey");
-        String email = (String) event.get("email");
-        String fullName = (String) event.get("fullName");
-        int retryAttempt = event.get("retryAttempt") != null ? Integer.parseInt(event.get("retryAttempt").toString()) + 1 : 1;
-
-        Map<String, Object> response;
-
-        try {
-            ResponseInputStream<GetObjectResponse> inputStream = fetchInputStream(bucketName, objectKey);
-
-            String mimeType = fetchMimeType(bucketName, objectKey);
+    @Override
+    public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context) throws IOException {
+        ImageProcessingEvent event = ImageProcessingEventCodec.read(inputStream);
+        ImageProcessingEventCodec.writeResult(process(event, context), outputStream);
+    }
 
-            String imageFormat = getImageFormatFromMimeType(mimeType);
-            InputStream processedImage = processImageWithWatermark(inputStream, fullName, imageFormat);
+    private ImageProcessingResult process(ImageProcessingEvent event, Context context) {
+        context.getLogger().log("Processing " + event.objectKey() + ", attempt " + event.attempt());
+        String bucketName = event.bucketName();
+        String objectKey = event.objectKey();
+        String email = event.email();
+        String fullName = event.fullName();
+        int retryAttempt = event.attempt();
 
-            uploadProcessedImage(objectKey, mimeType, processedImage);
+        ImageProcessingResult response;
 
-            response = saveImageUrlToDynamoDb(objectKey, email, fullName);
+        try {
+            ImageInfo imageInfo;
+            BufferedImage image;
+            try (ResponseInputStream<GetObjectResponse> objectStream = fetchInputStream(bucketName, objectKey)) {
+                if (email == null) {
+                    // Objects uploaded directly to the staging bucket carry their owner as metadata
+                    Map<String, String> metadata = objectStream.response().metadata();
+                    email = metadata.get(UploadMetadata.EMAIL);
+                    fullName = UploadMetadata.decode(metadata.get(UploadMetadata.FULL_NAME));
+                    if (email == null || fullName == null) {
+                        throw new IllegalArgumentException("Object " + objectKey + " has no owner metadata");
+                    }
+                    event = event.withOwner(email, fullName);
+                }
+                jobStatusUpdater.update(objectKey, email, UploadJobStatus.PROCESSING, null);
+
+                InputStream inputStream = new BufferedInputStream(objectStream);
+                // Only the header is read here, so oversized images are rejected before a raster is allocated
+                imageInfo = ImageProbe.probe(inputStream);
+                ImageProbe.checkPixelLimit(imageInfo, maxInputPixels);
+                image = ImageOrientation.normalize(ImageDecoder.decode(inputStream, imageInfo, maxOutputPixels), imageInfo.orientation());
+            }
+
+            watermarkRenderer.apply(image, fullName);
+
+            Map<String, Map<String, AttributeValue>> renditions = uploadWithRenditions(objectKey, imageInfo.format(), image);
+
+            response = saveImageUrlToDynamoDb(objectKey, email, fullName, renditions);
 
             deleteOriginalImage(bucketName, objectKey);
 
         } catch (Exception e) {
             context.getLogger().log("Error occurred while processing image" + e.getMessage());
+            if (email == null) {
+                // Without an owner there is nobody to notify and nothing to retry for; the on-failure destination
+                // cleans up the staged object
+                throw new RuntimeException("ImageProcessingFailed without owner: " + e.getMessage());
+            }
             handleRetryOrFailure(event, bucketName, objectKey, fullName, email, retryAttempt);
-            throw new RuntimeException("ImageProcessingFailed: " + e.getMessage());
+            throw new RuntimeException(ImageProcessingFailure.HANDLED_PREFIX + e.getMessage());
         }
+        jobStatusUpdater.update(objectKey, email, UploadJobStatus.COMPLETED, null);
         return response;
     }
 
@@ -120,94 +178,87 @@ public class ImageProcessingLambda implements RequestHandler<Map<String, Object>
                 .build());
     }
 
-    private String fetchMimeType(String bucketName, String objectKey) {
-        HeadObjectResponse headResponse = s3Client.headObject(HeadObjectRequest.builder()
-                .bucket(bucketName)
-                .key(objectKey)
-                .build());
-        return headResponse.contentType();
-    }
-
-    private String getImageFormatFromMimeType(String mimeType) {
-        return switch (mimeType) {
-            case "image/jpeg", "imageBase64/jpg" -> "jpg";
-            case "image/png" -> "png";
-            case "image/gif" -> "gif";
-            case "image/bmp" -> "bmp";
-            case "image/webp" -> "webp";
-            default -> throw new IllegalArgumentException("Unsupported imageBase64 MIME type: " + mimeType);
-        };
-    }
-
-    public InputStream processImageWithWatermark(InputStream inputStream, String name, String imageFormat) throws IOException {
-        String currentDate = new SimpleDateFormat("dd MMM yyyy HH:mm:ss").format(new Date());
-        String watermarkText = name.toUpperCase() + " - " + currentDate;
+    private Map<String, Map<String, AttributeValue>> uploadWithRenditions(String objectKey, ImageFormat format, BufferedImage image) throws IOException {
+        Map<String, Map<String, AttributeValue>> renditions = new LinkedHashMap<>();
 
-        BufferedImage originalImage = ImageIO.read(inputStream);
+        long size = uploadProcessedImage(objectKey, format, image);
+        renditions.put(FULL_RENDITION, renditionItem(objectKey, image, size));
 
-        Graphics2D graphics = (Graphics2D) originalImage.getGraphics();
-        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        // Specs are sorted largest first, so every rendition is scaled from the previous one instead of the full image
+        BufferedImage source = image;
+        for (RenditionSpec spec : renditionSpecs) {
+            BufferedImage rendition = ImageResizer.fit(source, spec.maxDimension());
+            if (rendition == source) {
+                continue;
+            }
 
-        int fontSize = originalImage.getWidth() / 40;
-        Font font = new Font(Font.SANS_SERIF, Font.BOLD, fontSize);
-        graphics.setFont(font);
-
-        FontMetrics fontMetrics = graphics.getFontMetrics();
-        int textWidth = fontMetrics.stringWidth(watermarkText);
-        int textHeight = fontMetrics.getHeight();
-
-        int x = originalImage.getWidth() - textWidth - 10;
-        int y = originalImage.getHeight() - textHeight + fontMetrics.getAscent();
-
-        graphics.setColor(new Color(0, 0, 0, 128));
-        graphics.drawString(watermarkText, x + 2, y + 2);
-
-        graphics.setColor(new Color(255, 255, 255, 192));
-        graphics.drawString(watermarkText, x, y);
-
-        graphics.dispose();
+            String renditionKey = spec.objectKey(objectKey);
+            long renditionSize = uploadProcessedImage(renditionKey, format, rendition);
+            renditions.put(spec.name(), renditionItem(renditionKey, rendition, renditionSize));
+            source = rendition;
+        }
 
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        ImageIO.write(originalImage, imageFormat, byteArrayOutputStream);
+        return renditions;
+    }
 
-        return new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
+    private long uploadProcessedImage(String objectKey, ImageFormat format, BufferedImage image) throws IOException {
+        // The encoder writes straight into the upload, so only the decoded raster and one part buffer are in memory
+        S3UploadOutputStream outputStream = new S3UploadOutputStream(s3Client, primaryBucket, objectKey, format.mimeType());
+        try {
+            ImageEncoder.encode(image, format, outputStream);
+            outputStream.close();
+        } catch (IOException | RuntimeException e) {
+            outputStream.abort();
+            throw e;
+        }
+        return outputStream.getBytesWritten();
     }
 
-    private void uploadProcessedImage(String objectKey, String mimeType, InputStream processedImage) throws IOException {
-        s3Client.putObject(PutObjectRequest.builder()
-                        .bucket(primaryBucket)
-                        .key(objectKey)
-                        .contentType(mimeType)
-                        .build(),
-                RequestBody.fromInputStream(processedImage, processedImage.available()));
+    private Map<String, AttributeValue> renditionItem(String key, BufferedImage image, long size) {
+        return Map.of(
+                "key", AttributeValue.builder().s(key).build(),
+                "width", AttributeValue.builder().n(String.valueOf(image.getWidth())).build(),
+                "height", AttributeValue.builder().n(String.valueOf(image.getHeight())).build(),
+                "size", AttributeValue.builder().n(String.valueOf(size)).build()
+        );
     }
 
-    private Map<String, Object> saveImageUrlToDynamoDb(String imageKey, String email, String fullName) {
+    private ImageProcessingResult saveImageUrlToDynamoDb(String imageKey, String email, String fullName, Map<String, Map<String, AttributeValue>> renditions) {
         String uploadDate = LocalDateTime.now().toString();
 
+        Map<String, AttributeValue> renditionAttributes = new HashMap<>();
+        Map<String, ImageProcessingResult.Rendition> renditionResponses = new LinkedHashMap<>();
+        renditions.forEach((name, rendition) -> {
+            renditionAttributes.put(name, AttributeValue.builder().m(rendition).build());
+            renditionResponses.put(name, new ImageProcessingResult.Rendition(
+                    toImageUrl(rendition.get("key").s()),
+                    Integer.parseInt(rendition.get("width").n()),
+                    Integer.parseInt(rendition.get("height").n()),
+                    Long.parseLong(rendition.get("size").n())));
+        });
+
         PutItemRequest putItemRequest = PutItemRequest.builder()
                 .tableName(dynamodbTable)
                 .item(Map.of(
                         "pk", AttributeValue.builder().s(imageKey).build(),
                         "sk", AttributeValue.builder().s(email).build(),
+                        "owner", AttributeValue.builder().s(email).build(),
                         "fullName", AttributeValue.builder().s(fullName).build(),
                         "imageKey", AttributeValue.builder().s(imageKey).build(),
                         "uploadDate", AttributeValue.builder().s(uploadDate).build(),
                         "deleteStatus", AttributeValue.builder().n("0").build(),
-                        "type", AttributeValue.builder().s("photo").build())
+                        "type", AttributeValue.builder().s(BlogPost.typeShard(imageKey)).build(),
+                        "renditions", AttributeValue.builder().m(renditionAttributes).build())
                 )
                 .build();
 
         dynamoDbClient.putItem(putItemRequest);
 
-        Map<String, Object> imageMetadata = new HashMap<>();
-        imageMetadata.put("pk", imageKey);
-        imageMetadata.put("sk", email);
-        imageMetadata.put("fullName", fullName);
-        imageMetadata.put("imageUrl", "https://" + primaryBucket + ".s3." + awsRegion + ".amazonaws.com/" + imageKey);
-        imageMetadata.put("uploadDate", uploadDate);
+        return new ImageProcessingResult(imageKey, email, fullName, toImageUrl(imageKey), uploadDate, renditionResponses);
+    }
 
-        return imageMetadata;
+    private String toImageUrl(String key) {
+        return "https://" + primaryBucket + ".s3." + awsRegion + ".amazonaws.com/" + key;
     }
 
     private void deleteOriginalImage(String bucketName, String objectKey) {
@@ -217,24 +268,29 @@ public class ImageProcessingLambda implements RequestHandler<Map<String, Object>
                 .build());
     }
 
-    private void handleRetryOrFailure(Map<String, Object> event, String bucketName, String objectKey, String fullName, String email, int retryAttempt) {
+    private void handleRetryOrFailure(ImageProcessingEvent event, String bucketName, String objectKey, String fullName, String email, int retryAttempt) {
         if (retryAttempt == 1) {
             sendToSQS(fullName, email);
         }
 
-        if (retryAttempt <= 2) {
+        if (retryAttempt < MAX_ATTEMPTS) {
+            jobStatusUpdater.update(objectKey, email, UploadJobStatus.PROCESSING, "Attempt " + retryAttempt + " of " + MAX_ATTEMPTS + " failed, retrying");
             invokeStepFunction(event, retryAttempt);
         }
 
-        if (retryAttempt == 3) {
+        if (retryAttempt == MAX_ATTEMPTS) {
+            jobStatusUpdater.update(objectKey, email, UploadJobStatus.FAILED, "Image processing failed");
             deleteOriginalImage(bucketName, objectKey);
         }
     }
 
-    private void invokeStepFunction(Map<String, Object> events, int retryAttempt) {
-        events.put("workflowType", "image-processing-retry");
-        events.put("retryAttempt", retryAttempt);
-        String payload = new Gson().toJson(events);
+    private void invokeStepFunction(ImageProcessingEvent event, int retryAttempt) {
+        String payload;
+        try {
+            payload = ImageProcessingEventCodec.writeRetry(event, retryAttempt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         StartExecutionRequest startExecutionRequest = StartExecutionRequest.builder()
                 .stateMachineArn(stepFunctionArn)
                 .input(payload)
@@ -1,8 +1,10 @@
 package org.example;
 
 import com.amazonaws.services.lambda.runtime.Context;
-import com.amazonaws.services.lambda.runtime.RequestHandler;
-import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import org.example.config.AwsClientFactory;
+import org.example.event.SqsEventCodec;
+import org.example.event.SqsMessage;
 import software.amazon.awssdk.services.sns.SnsClient;
 import software.amazon.awssdk.services.sns.model.GetSubscriptionAttributesRequest;
 import software.amazon.awssdk.services.sns.model.ListSubscriptionsByTopicRequest;
@@ -12,22 +14,25 @@ import software.amazon.awssdk.services.sns.model.PublishRequest;
 import software.amazon.awssdk.services.sns.model.SetSubscriptionAttributesRequest;
 import software.amazon.awssdk.services.sns.model.Subscription;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
-public class SQSEventLambda implements RequestHandler<SQSEvent, Void> {
+public class SQSEventLambda implements RequestStreamHandler {
     private final SnsClient snsClient;
     private final String notificationTopicArn;
 
     public SQSEventLambda() {
-        snsClient = SnsClient.create();
+        snsClient = AwsClientFactory.fromEnvironment().sns();
         notificationTopicArn = System.getenv("NOTIFICATION_TOPIC_ARN");
     }
 
     @Override
-    public Void handleRequest(SQSEvent sqsEvent, Context context) {
-        for (SQSEvent.SQSMessage message : sqsEvent.getRecords()) {
-            String workflowType = message.getMessageAttributes().get("workflowType").getStringValue();
+    public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context) throws IOException {
+        for (SqsMessage message : SqsEventCodec.read(inputStream)) {
+            String workflowType = message.attribute("workflowType");
 
             if ("publishSNS".equals(workflowType)) {
                 handlePublishSNS(message, context);
@@ -35,15 +40,14 @@ public class SQSEventLambda implements RequestHandler<SQSEvent, Void> {
                 context.getLogger().log("Unknown workflowType: " + workflowType);
             }
         }
-        return null;
     }
 
-    private void handlePublishSNS(SQSEvent.SQSMessage message, Context context) {
+    private void handlePublishSNS(SqsMessage message, Context context) {
         context.getLogger().log("Processing PublishToSNS event: " + message);
 
-        String userEmail = message.getMessageAttributes().get("email").getStringValue();
-        String subject = message.getMessageAttributes().get("subject").getStringValue();
-        String messageBody = message.getBody();
+        String userEmail = message.attribute("email");
+        String subject = message.attribute("subject");
+        String messageBody = message.body();
 
         sendSNSNotification(userEmail, messageBody, subject);
     }
@@ -7,6 +7,8 @@ import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
 import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import org.crac.Core;
+import org.example.priming.ApiPrimer;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -15,6 +17,8 @@ import java.io.OutputStream;
 
 public class StreamLambdaHandler implements RequestStreamHandler {
     private static SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler;
+    // The global CRaC context only keeps weak references to its resources
+    private static ApiPrimer primer;
     static {
         try {
             handler = SpringBootLambdaContainerHandler.getAwsProxyHandler(Application.class);
@@ -23,6 +27,9 @@ public class StreamLambdaHandler implements RequestStreamHandler {
             e.printStackTrace();
             throw new RuntimeException("Could not initialize Spring Boot application", e);
         }
+        // Only called back when SnapStart takes a snapshot; without it priming never runs
+        primer = new ApiPrimer(handler);
+        Core.getGlobalContext().register(primer);
     }
 
     @Override
@@ -30,4 +37,4 @@ public class StreamLambdaHandler implements RequestStreamHandler {
             throws IOException {
         handler.proxyStream(inputStream, outputStream, context);
     }
-}
\ No newline at end of file
+}
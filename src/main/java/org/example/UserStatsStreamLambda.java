@@ -0,0 +1,110 @@
+package org.example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.StreamsEventResponse;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.StreamRecord;
+import org.example.config.AwsClientFactory;
+import org.example.model.UserStats;
+import org.example.stats.DynamoDbUserStatsStore;
+import org.example.stats.PhotoChange;
+import org.example.stats.StreamImages;
+import org.example.stats.UserStatsAggregator;
+import org.example.stats.UserStatsStore;
+import org.example.util.Batches;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the per-user stats items up to date from the table's stream. Records are grouped by owner, so each user's
+ * stats are read and written once per batch. A record is applied together with a marker of its event id, which makes
+ * replays of a batch after a partial failure no-ops.
+ */
+public class UserStatsStreamLambda implements RequestHandler<DynamodbEvent, StreamsEventResponse> {
+    private static final int MAX_ATTEMPTS = 3;
+    // A transaction holds at most 100 items: the stats item and one marker per event
+    private static final int MAX_EVENTS_PER_WRITE = 99;
+
+    private final UserStatsStore store;
+    private final UserStatsAggregator aggregator;
+
+    public UserStatsStreamLambda() {
+        String latestPosts = System.getenv("LATEST_POSTS");
+        store = new DynamoDbUserStatsStore(AwsClientFactory.fromEnvironment().dynamoDb(), System.getenv("DYNAMODB_TABLE"));
+        aggregator = new UserStatsAggregator(latestPosts != null ? Integer.parseInt(latestPosts) : UserStats.DEFAULT_LATEST_POSTS);
+    }
+
+    UserStatsStreamLambda(UserStatsStore store, int latestPosts) {
+        this.store = store;
+        this.aggregator = new UserStatsAggregator(latestPosts);
+    }
+
+    @Override
+    public StreamsEventResponse handleRequest(DynamodbEvent event, Context context) {
+        Map<String, List<PhotoChange>> changesByOwner = new LinkedHashMap<>();
+        for (DynamodbEvent.DynamodbStreamRecord record : event.getRecords()) {
+            PhotoChange change = toPhotoChange(record);
+            if (change != null) {
+                changesByOwner.computeIfAbsent(change.owner(), owner -> new ArrayList<>()).add(change);
+            }
+        }
+
+        List<StreamsEventResponse.BatchItemFailure> failures = new ArrayList<>();
+        changesByOwner.forEach((owner, changes) -> {
+            for (List<PhotoChange> batch : Batches.partition(changes, MAX_EVENTS_PER_WRITE)) {
+                try {
+                    apply(owner, batch);
+                } catch (RuntimeException e) {
+                    // Lambda retries from the earliest failed record; whatever was applied after it is skipped then
+                    context.getLogger().log("Failed to update stats of " + owner + ": " + e.getMessage());
+                    failures.add(new StreamsEventResponse.BatchItemFailure(batch.get(0).sequenceNumber()));
+                    break;
+                }
+            }
+        });
+        return new StreamsEventResponse(failures);
+    }
+
+    private void apply(String owner, List<PhotoChange> changes) {
+        List<PhotoChange> pending = changes;
+        int attempt = 1;
+        while (!pending.isEmpty()) {
+            UserStats current = store.find(owner).orElseGet(() -> UserStats.empty(owner));
+            UserStats updated = aggregator.apply(current, pending);
+            if (aggregator.isLatestIncomplete(updated)) {
+                updated = updated.toBuilder().latest(store.findLatestPosts(owner, aggregator.getLatestPosts())).build();
+            }
+
+            UserStatsStore.SaveResult result = store.save(updated, current.getVersion(),
+                    pending.stream().map(PhotoChange::eventId).toList());
+            if (result.saved()) {
+                return;
+            }
+            if (!result.duplicateEventIds().isEmpty()) {
+                Set<String> duplicates = result.duplicateEventIds();
+                pending = pending.stream().filter(change -> !duplicates.contains(change.eventId())).toList();
+            } else if (++attempt > MAX_ATTEMPTS) {
+                throw new IllegalStateException("Stats were modified concurrently");
+            }
+        }
+    }
+
+    private static PhotoChange toPhotoChange(DynamodbEvent.DynamodbStreamRecord record) {
+        StreamRecord streamRecord = record.getDynamodb();
+        Map<String, AttributeValue> oldImage = StreamImages.toAttributeValues(streamRecord.getOldImage());
+        Map<String, AttributeValue> newImage = StreamImages.toAttributeValues(streamRecord.getNewImage());
+        if (!PhotoChange.isPhoto(oldImage) && !PhotoChange.isPhoto(newImage)) {
+            return null;
+        }
+
+        Map<String, AttributeValue> keys = StreamImages.toAttributeValues(streamRecord.getKeys());
+        return new PhotoChange(record.getEventID(), streamRecord.getSequenceNumber(), keys.get("sk").s(), keys.get("pk").s(),
+                oldImage, newImage);
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.config;
+
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.ContainerCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
+import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.core.client.builder.SdkAsyncClientBuilder;
+import software.amazon.awssdk.core.client.builder.SdkSyncClientBuilder;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.regions.providers.DefaultAwsRegionProviderChain;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.sfn.SfnClient;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Builds the AWS SDK clients of the API and of every event Lambda. Region and credentials are taken straight from the
+ * Lambda environment instead of walking the provider chains, and all clients of a process share one HTTP client.
+ * <p>
+ * Setting {@code AWS_ENDPOINT_OVERRIDE} sends every client to that endpoint, e.g. a local stand-in during load tests.
+ */
+public class AwsClientFactory {
+    public static final String ENDPOINT_OVERRIDE = "AWS_ENDPOINT_OVERRIDE";
+
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration SOCKET_TIMEOUT = Duration.ofSeconds(15);
+    // Concurrent connections of the async client, a multiple of this; the feed fans out one query per TypeDateIndex shard
+    private static final int MAX_CONNECTIONS = 16;
+    private static final Duration MAX_IDLE_TIME = Duration.ofSeconds(60);
+
+    private final Region region;
+    private final AwsCredentialsProvider credentialsProvider;
+    private final URI endpointOverride;
+    private final List<ExecutionInterceptor> interceptors;
+
+    private AwsClientFactory(Region region, AwsCredentialsProvider credentialsProvider, URI endpointOverride,
+                             List<ExecutionInterceptor> interceptors) {
+        this.region = region;
+        this.credentialsProvider = credentialsProvider;
+        this.endpointOverride = endpointOverride;
+        this.interceptors = interceptors;
+    }
+
+    public static AwsClientFactory fromEnvironment() {
+        String region = System.getenv("AWS_REGION");
+        String endpointOverride = System.getenv(ENDPOINT_OVERRIDE);
+        return new AwsClientFactory(
+                region != null ? Region.of(region) : DefaultAwsRegionProviderChain.builder().build().getRegion(),
+                environmentCredentialsProvider(),
+                endpointOverride != null && !endpointOverride.isBlank() ? URI.create(endpointOverride) : null,
+                List.of());
+    }
+
+    /**
+     * A factory whose clients additionally run the given interceptor.
+     */
+    public AwsClientFactory withInterceptor(ExecutionInterceptor interceptor) {
+        List<ExecutionInterceptor> withInterceptor = new ArrayList<>(interceptors);
+        withInterceptor.add(interceptor);
+        return new AwsClientFactory(region, credentialsProvider, endpointOverride, List.copyOf(withInterceptor));
+    }
+
+    /**
+     * A factory whose clients resolve their credentials through the given wrapper of the environment's provider.
+     */
+    public AwsClientFactory withCredentialsProvider(UnaryOperator<AwsCredentialsProvider> wrapper) {
+        return new AwsClientFactory(region, wrapper.apply(credentialsProvider), endpointOverride, interceptors);
+    }
+
+    /**
+     * The credentials every client signs with, e.g. to find out when presigned URLs stop working.
+     */
+    public AwsCredentialsProvider credentialsProvider() {
+        return credentialsProvider;
+    }
+
+    public S3Client s3() {
+        return sync(S3Client.builder())
+                .forcePathStyle(endpointOverride != null)
+                .build();
+    }
+
+    public S3Presigner s3Presigner() {
+        S3Presigner.Builder builder = S3Presigner.builder()
+                .region(region)
+                .credentialsProvider(credentialsProvider)
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(endpointOverride != null).build());
+        if (endpointOverride != null) {
+            builder.endpointOverride(endpointOverride);
+        }
+        return builder.build();
+    }
+
+    public DynamoDbClient dynamoDb() {
+        return sync(DynamoDbClient.builder()).build();
+    }
+
+    public DynamoDbAsyncClient dynamoDbAsync() {
+        return async(DynamoDbAsyncClient.builder()).build();
+    }
+
+    public SqsClient sqs() {
+        return sync(SqsClient.builder()).build();
+    }
+
+    public SnsClient sns() {
+        return sync(SnsClient.builder()).build();
+    }
+
+    public SfnClient sfn() {
+        return sync(SfnClient.builder()).build();
+    }
+
+    private <B extends AwsClientBuilder<B, ?> & SdkSyncClientBuilder<B, ?>> B sync(B builder) {
+        return configure(builder).httpClient(SharedHttpClient.SYNC);
+    }
+
+    private <B extends AwsClientBuilder<B, ?> & SdkAsyncClientBuilder<B, ?>> B async(B builder) {
+        return configure(builder).httpClient(SharedAsyncHttpClient.ASYNC);
+    }
+
+    private <B extends AwsClientBuilder<B, ?>> B configure(B builder) {
+        ClientOverrideConfiguration.Builder overrideConfiguration = ClientOverrideConfiguration.builder()
+                .retryStrategy(RetryMode.STANDARD);
+        interceptors.forEach(overrideConfiguration::addExecutionInterceptor);
+
+        builder.region(region)
+                .credentialsProvider(credentialsProvider)
+                .overrideConfiguration(overrideConfiguration.build());
+        if (endpointOverride != null) {
+            builder.endpointOverride(endpointOverride);
+        }
+        return builder;
+    }
+
+    private static AwsCredentialsProvider environmentCredentialsProvider() {
+        if (System.getenv("AWS_ACCESS_KEY_ID") != null) {
+            return EnvironmentVariableCredentialsProvider.create();
+        }
+        // SnapStart functions get their credentials from the container endpoint, not from environment variables
+        if (System.getenv("AWS_CONTAINER_CREDENTIALS_FULL_URI") != null) {
+            return ContainerCredentialsProvider.builder().build();
+        }
+        return DefaultCredentialsProvider.create();
+    }
+
+    /**
+     * The JDK's HttpURLConnection based client: nothing to load beyond the JDK, which keeps cold starts short. It
+     * keeps connections alive through the JDK keep-alive cache, which the deployment sizes with
+     * {@code -Dhttp.maxConnections} (see template.yml).
+     */
+    private static final class SharedHttpClient {
+        static final SdkHttpClient SYNC = UrlConnectionHttpClient.builder()
+                .connectionTimeout(CONNECTION_TIMEOUT)
+                .socketTimeout(SOCKET_TIMEOUT)
+                .build();
+    }
+
+    /**
+     * Only created by processes that use an async client, so the event Lambdas never start Netty.
+     */
+    private static final class SharedAsyncHttpClient {
+        static final SdkAsyncHttpClient ASYNC = NettyNioAsyncHttpClient.builder()
+                .eventLoopGroupBuilder(SdkEventLoopGroup.builder().numberOfThreads(2))
+                .maxConcurrency(MAX_CONNECTIONS * 4)
+                .connectionTimeout(CONNECTION_TIMEOUT)
+                .readTimeout(SOCKET_TIMEOUT)
+                .writeTimeout(SOCKET_TIMEOUT)
+                .connectionMaxIdleTime(MAX_IDLE_TIME)
+                .tcpKeepAlive(true)
+                .build();
+    }
+}
@@ -1,30 +1,52 @@
 package org.example.config;
 
+import org.example.dto.PreSignedUrlResponse;
+import org.example.priming.PrimingCredentialsProvider;
+import org.example.priming.PrimingInterceptor;
+import org.example.util.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
-import software.amazon.awssdk.services.lambda.LambdaClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
+import java.time.Duration;
+
 
 @Configuration
 public class AwsConfig {
 
     @Bean
-    public S3Client getS3Client() {
-        return S3Client.create();
+    public AwsClientFactory awsClientFactory() {
+        // Keeps the API's SDK calls, and the credential lookups they would start, from leaving the function while it
+        // is primed for a snapshot
+        return AwsClientFactory.fromEnvironment()
+                .withCredentialsProvider(PrimingCredentialsProvider::new)
+                .withInterceptor(new PrimingInterceptor());
     }
 
     @Bean
-    public DynamoDbClient getDynamoDbClient() {
-        return DynamoDbClient.create();
+    public AwsCredentialsProvider awsCredentialsProvider(AwsClientFactory awsClientFactory) {
+        return awsClientFactory.credentialsProvider();
     }
 
     @Bean
-    public LambdaClient getLambdaClient() {
-        return LambdaClient.create();
+    public S3Client getS3Client(AwsClientFactory awsClientFactory) {
+        return awsClientFactory.s3();
+    }
+
+    @Bean
+    public DynamoDbClient getDynamoDbClient(AwsClientFactory awsClientFactory) {
+        return awsClientFactory.dynamoDb();
+    }
+
+    @Bean(destroyMethod = "close")
+    public DynamoDbAsyncClient getDynamoDbAsyncClient(AwsClientFactory awsClientFactory) {
+        return awsClientFactory.dynamoDbAsync();
     }
 
     @Bean
@@ -35,8 +57,24 @@ public class AwsConfig {
     }
 
     @Bean
-    public S3Presigner getPreSigner() {
-        return S3Presigner.create();
+    public S3Presigner getPreSigner(AwsClientFactory awsClientFactory) {
+        return awsClientFactory.s3Presigner();
+    }
+
+    /**
+     * Presigned GET URLs by object key. A URL is handed out again until less than {@code min-remaining-validity} of
+     * its signature is left, so a page is never rendered with URLs that are about to expire. URLs signed with
+     * credentials that expire sooner are dropped earlier by the service.
+     */
+    @Bean
+    public TtlCache<String, PreSignedUrlResponse> preSignedUrlCache(
+            @Value("${app.presigned-url.signature-duration}") Duration signatureDuration,
+            @Value("${app.presigned-url.min-remaining-validity}") Duration minRemainingValidity,
+            @Value("${app.presigned-url.cache.max-entries}") int maxEntries) {
+        if (minRemainingValidity.compareTo(signatureDuration) >= 0) {
+            throw new IllegalArgumentException("Min remaining validity must be shorter than the signature duration");
+        }
+        return new TtlCache<>(signatureDuration.minus(minRemainingValidity), maxEntries);
     }
 
 }
@@ -0,0 +1,42 @@
+package org.example.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Bounded pool for blocking S3/DynamoDB calls fanned out from a single request.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService uploadExecutor(@Value("${app.upload.parallelism:8}") int parallelism) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "upload-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+
+    /**
+     * Runs the per-shard queries of a feed page side by side; one thread per shard serves a page in one round trip.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService queryExecutor(@Value("${app.query.parallelism:9}") int parallelism) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "query-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+}
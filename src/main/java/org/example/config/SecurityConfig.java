@@ -1,5 +1,13 @@
 package org.example.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.example.priming.Priming;
+import org.example.priming.PrimingJwtDecoder;
+import org.example.security.CachingJwtDecoder;
+import org.example.security.PersistentJwkSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,11 +16,17 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
@@ -39,6 +53,33 @@ public class SecurityConfig {
         return http.build();
     }
 
+    @Bean(destroyMethod = "close")
+    public PersistentJwkSource jwkSource(
+            @Value("${app.security.jwt.jwk-set-uri}") URI jwkSetUri,
+            @Value("${app.security.jwt.jwk-set-file}") Path jwkSetFile,
+            @Value("${app.security.jwt.refresh-interval}") Duration refreshInterval,
+            @Value("${app.security.jwt.min-refresh-interval}") Duration minRefreshInterval) {
+        // The keys are never fetched while priming, so no connection to the issuer ends up in the snapshot
+        return new PersistentJwkSource(Priming.offline(PersistentJwkSource.fromUri(jwkSetUri, Duration.ofSeconds(5))),
+                jwkSetFile, refreshInterval, minRefreshInterval);
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(
+            PersistentJwkSource jwkSource,
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+            @Value("${app.security.jwt.token-cache.max-entries}") int maxCachedTokens) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Claims are checked by the Spring validators below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return new PrimingJwtDecoder(new CachingJwtDecoder(decoder, maxCachedTokens));
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
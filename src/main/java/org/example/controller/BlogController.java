@@ -1,9 +1,21 @@
 package org.example.controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.BatchPreSignedUrlRequest;
+import org.example.dto.BatchPreSignedUrlResponse;
+import org.example.dto.BatchUploadResponse;
+import org.example.dto.BatchUploadSessionRequest;
 import org.example.dto.BlogPostResponse;
+import org.example.dto.BulkActionResponse;
+import org.example.dto.BulkBlogPostRequest;
 import org.example.dto.ImageUploadRequest;
+import org.example.dto.PageResponse;
 import org.example.dto.PreSignedUrlResponse;
+import org.example.dto.UploadJobResponse;
+import org.example.dto.UploadSessionRequest;
+import org.example.dto.UploadSessionResponse;
+import org.example.dto.UserStatsResponse;
 import org.example.service.BlogService;
 import org.example.service.S3Service;
 import org.springframework.http.HttpStatus;
@@ -16,28 +28,32 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/blog")
 public class BlogController {
+    static final String DEFAULT_PAGE_SIZE = "20";
+
     private final S3Service s3Service;
     private final BlogService blogService;
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<BlogPostResponse> getAllBlogPosts() {
-        return blogService.findAllBlogPost();
+    public PageResponse<BlogPostResponse> getAllBlogPosts(
+            @RequestParam(value = "pageSize", defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor
+    ) {
+        return blogService.findAllBlogPost(pageSize, cursor);
     }
 
     @PostMapping("/upload")
-    @ResponseStatus(HttpStatus.OK)
-    public BlogPostResponse uploadImage(
-            @RequestBody ImageUploadRequest imageUploadRequest,
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public UploadJobResponse uploadImage(
+            @Valid @RequestBody ImageUploadRequest imageUploadRequest,
             @AuthenticationPrincipal Jwt jwt
     ) {
         String userEmail = jwt.getClaimAsString("email");
@@ -46,29 +62,113 @@ public class BlogController {
 
     }
 
+    @PostMapping("/upload/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BatchUploadResponse createUploadSessions(
+            @Valid @RequestBody BatchUploadSessionRequest batchUploadSessionRequest,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        String userEmail = jwt.getClaimAsString("email");
+        String fullName = jwt.getClaimAsString("name");
+        return s3Service.createUploadSessions(batchUploadSessionRequest.images(), userEmail, fullName);
+    }
+
+    @PostMapping("/upload/session")
+    @ResponseStatus(HttpStatus.CREATED)
+    public UploadSessionResponse createUploadSession(
+            @RequestBody UploadSessionRequest uploadSessionRequest,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        String userEmail = jwt.getClaimAsString("email");
+        String fullName = jwt.getClaimAsString("name");
+        return s3Service.createUploadSession(uploadSessionRequest, userEmail, fullName);
+    }
+
+    @GetMapping("/upload/session/{jobId}")
+    @ResponseStatus(HttpStatus.OK)
+    public UploadSessionResponse resumeUploadSession(
+            @PathVariable("jobId") String jobId,
+            @RequestParam(value = "contentType", required = false) String contentType,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        String userEmail = jwt.getClaimAsString("email");
+        String fullName = jwt.getClaimAsString("name");
+        return s3Service.resumeUploadSession(jobId, contentType, userEmail, fullName);
+    }
+
+    @PostMapping("/upload/session/{jobId}/complete")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public UploadJobResponse completeUploadSession(@PathVariable("jobId") String jobId, @AuthenticationPrincipal Jwt jwt) {
+        String userEmail = jwt.getClaimAsString("email");
+        return s3Service.completeUploadSession(jobId, userEmail);
+    }
+
+    @DeleteMapping("/upload/session/{jobId}")
+    @ResponseStatus(HttpStatus.OK)
+    public void abortUploadSession(@PathVariable("jobId") String jobId, @AuthenticationPrincipal Jwt jwt) {
+        String userEmail = jwt.getClaimAsString("email");
+        s3Service.abortUploadSession(jobId, userEmail);
+    }
+
+    @GetMapping("/upload/{jobId}")
+    @ResponseStatus(HttpStatus.OK)
+    public UploadJobResponse getUploadJob(@PathVariable("jobId") String jobId, @AuthenticationPrincipal Jwt jwt) {
+        String userEmail = jwt.getClaimAsString("email");
+        return blogService.findUploadJob(jobId, userEmail);
+    }
+
     @PatchMapping("/generate-url/{objectKey}")
     @ResponseStatus(HttpStatus.OK)
     public PreSignedUrlResponse generatePreSignedUrl(@PathVariable("objectKey") String objectKey, @AuthenticationPrincipal Jwt jwt) {
         String userEmail = jwt.getClaimAsString("email");
-        return s3Service.generatePreSignedUrl(objectKey, userEmail);
+        return blogService.generatePreSignedUrl(objectKey, userEmail);
     }
 
+    @PostMapping("/generate-url/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public BatchPreSignedUrlResponse generatePreSignedUrls(
+            @Valid @RequestBody BatchPreSignedUrlRequest batchPreSignedUrlRequest,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        String userEmail = jwt.getClaimAsString("email");
+        return blogService.generatePreSignedUrls(batchPreSignedUrlRequest.objectKeys(), userEmail);
+    }
+
+
+    @GetMapping("/user/stats")
+    @ResponseStatus(HttpStatus.OK)
+    public UserStatsResponse getUserStats(@AuthenticationPrincipal Jwt jwt) {
+        String userEmail = jwt.getClaimAsString("email");
+        return blogService.findUserStats(userEmail);
+    }
 
-    @GetMapping("/user")
+    @DeleteMapping("/user/recycle")
     @ResponseStatus(HttpStatus.OK)
-    public List<BlogPostResponse> getBlogPostByUser(@AuthenticationPrincipal Jwt jwt) {
+    public BulkActionResponse emptyRecycleBin(@AuthenticationPrincipal Jwt jwt) {
         String userEmail = jwt.getClaimAsString("email");
+        return blogService.emptyRecycleBin(userEmail);
+    }
 
-        return blogService.findAllBlogPostByUser(userEmail);
+    @PostMapping("/delete/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public BulkActionResponse deletePosts(@Valid @RequestBody BulkBlogPostRequest bulkBlogPostRequest, @AuthenticationPrincipal Jwt jwt) {
+        String userEmail = jwt.getClaimAsString("email");
+        return blogService.deleteBlogPosts(bulkBlogPostRequest.photoIds(), userEmail);
     }
 
-    @GetMapping("/user/recycle")
+    @PostMapping("/recycle/bulk")
     @ResponseStatus(HttpStatus.OK)
-    public List<BlogPostResponse> getRecycleBlogPostByUser(@AuthenticationPrincipal Jwt jwt) {
+    public BulkActionResponse moveToRecycleBin(@Valid @RequestBody BulkBlogPostRequest bulkBlogPostRequest, @AuthenticationPrincipal Jwt jwt) {
         String userEmail = jwt.getClaimAsString("email");
-        return blogService.findAllRecycleBlogPost(userEmail);
+        return blogService.moveToOrRestoreFromRecycleBin(bulkBlogPostRequest.photoIds(), userEmail, true);
     }
 
+    @PostMapping("/recycle/restore/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public BulkActionResponse restoreFromRecycleBin(@Valid @RequestBody BulkBlogPostRequest bulkBlogPostRequest, @AuthenticationPrincipal Jwt jwt) {
+        String userEmail = jwt.getClaimAsString("email");
+        return blogService.moveToOrRestoreFromRecycleBin(bulkBlogPostRequest.photoIds(), userEmail, false);
+    }
 
     @DeleteMapping("/delete/{photoId}")
     @ResponseStatus(HttpStatus.OK)
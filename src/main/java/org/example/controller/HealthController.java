@@ -2,12 +2,18 @@ package org.example.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.example.dto.HealthStatus;
+import org.example.dto.PreSignedUrlResponse;
+import org.example.repository.impl.CachedBlogRepository;
+import org.example.util.TtlCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/health")
 @RequiredArgsConstructor
@@ -16,9 +22,19 @@ public class HealthController {
     @Value("${aws.region}")
     private String region;
 
+    private final CachedBlogRepository cachedBlogRepository;
+    private final TtlCache<String, PreSignedUrlResponse> preSignedUrlCache;
+
     @GetMapping
     public ResponseEntity<?> checkHealth() {
         return ResponseEntity.ok(HealthStatus.builder().status("UP").region(region).build());
     }
 
+    @GetMapping("/cache")
+    public ResponseEntity<?> cacheStats() {
+        Map<String, TtlCache.Stats> stats = new HashMap<>(cachedBlogRepository.cacheStats());
+        stats.put("presignedUrls", preSignedUrlCache.stats());
+        return ResponseEntity.ok(stats);
+    }
+
 }
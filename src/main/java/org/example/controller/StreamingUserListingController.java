@@ -0,0 +1,54 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.BlogPostResponse;
+import org.example.service.BlogService;
+import org.example.util.JsonPageWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * The user's listings, written while the index pages arrive (see {@link JsonPageWriter}). Only pays off where the
+ * response is streamed to the client, so it is enabled with {@code app.listing.stream=true}.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/blog")
+@ConditionalOnProperty(name = "app.listing.stream", havingValue = "true")
+public class StreamingUserListingController {
+    private final BlogService blogService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/user")
+    public void getBlogPostByUser(
+            @RequestParam(value = "pageSize", defaultValue = BlogController.DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @AuthenticationPrincipal Jwt jwt,
+            HttpServletResponse response
+    ) throws IOException {
+        String userEmail = jwt.getClaimAsString("email");
+        JsonPageWriter.<BlogPostResponse>write(response, objectMapper,
+                consumer -> blogService.streamAllBlogPostByUser(userEmail, pageSize, cursor, consumer));
+    }
+
+    @GetMapping("/user/recycle")
+    public void getRecycleBlogPostByUser(
+            @RequestParam(value = "pageSize", defaultValue = BlogController.DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @AuthenticationPrincipal Jwt jwt,
+            HttpServletResponse response
+    ) throws IOException {
+        String userEmail = jwt.getClaimAsString("email");
+        JsonPageWriter.<BlogPostResponse>write(response, objectMapper,
+                consumer -> blogService.streamAllRecycleBlogPost(userEmail, pageSize, cursor, consumer));
+    }
+}
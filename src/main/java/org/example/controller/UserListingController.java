@@ -0,0 +1,49 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.BlogPostResponse;
+import org.example.dto.PageResponse;
+import org.example.service.BlogService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The user's listings, read a page at a time through the cache. Replaced by {@link StreamingUserListingController}
+ * when {@code app.listing.stream} is set.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/blog")
+@ConditionalOnProperty(name = "app.listing.stream", havingValue = "false", matchIfMissing = true)
+public class UserListingController {
+    private final BlogService blogService;
+
+    @GetMapping("/user")
+    @ResponseStatus(HttpStatus.OK)
+    public PageResponse<BlogPostResponse> getBlogPostByUser(
+            @RequestParam(value = "pageSize", defaultValue = BlogController.DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        String userEmail = jwt.getClaimAsString("email");
+        return blogService.findAllBlogPostByUser(userEmail, pageSize, cursor);
+    }
+
+    @GetMapping("/user/recycle")
+    @ResponseStatus(HttpStatus.OK)
+    public PageResponse<BlogPostResponse> getRecycleBlogPostByUser(
+            @RequestParam(value = "pageSize", defaultValue = BlogController.DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        String userEmail = jwt.getClaimAsString("email");
+        return blogService.findAllRecycleBlogPost(userEmail, pageSize, cursor);
+    }
+}
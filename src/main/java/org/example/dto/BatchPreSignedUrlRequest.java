@@ -0,0 +1,12 @@
+package org.example.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchPreSignedUrlRequest(
+        @NotEmpty(message = "At least one object key is required")
+        @Size(max = 100, message = "A batch request can contain at most 100 object keys")
+        List<String> objectKeys) {
+}
@@ -0,0 +1,10 @@
+package org.example.dto;
+
+import lombok.Builder;
+
+/**
+ * The upload session of one image of a batch, or the reason there is none.
+ */
+@Builder
+public record BatchUploadItemResponse(int index, UploadSessionResponse session, String status, String message) {
+}
@@ -0,0 +1,9 @@
+package org.example.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record BatchUploadResponse(int accepted, int failed, List<BatchUploadItemResponse> items) {
+}
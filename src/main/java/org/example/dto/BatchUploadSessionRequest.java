@@ -0,0 +1,16 @@
+package org.example.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * One upload session per image. The images themselves go straight to S3, so the size of a batch is only bounded by
+ * the per-image limit of an upload session, not by Lambda's payload limit. An invalid image fails on its own.
+ */
+public record BatchUploadSessionRequest(
+        @NotEmpty(message = "At least one image is required")
+        @Size(max = 50, message = "A batch can contain at most 50 images")
+        List<UploadSessionRequest> images) {
+}
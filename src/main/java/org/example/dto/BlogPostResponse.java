@@ -3,6 +3,8 @@ package org.example.dto;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 @Builder
 public class BlogPostResponse {
@@ -11,4 +13,5 @@ public class BlogPostResponse {
     private String fullName;
     private String imageUrl;
     private String uploadDate;
+    private Map<String, RenditionResponse> renditions;
 }
@@ -0,0 +1,9 @@
+package org.example.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record BulkActionResponse(int succeeded, int failed, List<BulkItemResponse> items) {
+}
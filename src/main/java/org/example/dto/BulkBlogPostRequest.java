@@ -0,0 +1,12 @@
+package org.example.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkBlogPostRequest(
+        @NotEmpty(message = "At least one photo id is required")
+        @Size(max = 100, message = "A bulk request can contain at most 100 photo ids")
+        List<String> photoIds) {
+}
@@ -0,0 +1,7 @@
+package org.example.dto;
+
+import lombok.Builder;
+
+@Builder
+public record BulkItemResponse(String photoId, String status, String message) {
+}
@@ -0,0 +1,12 @@
+package org.example.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * One page of a listing, newest first. {@code nextCursor} is null on the last page.
+ */
+@Builder
+public record PageResponse<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,7 @@
+package org.example.dto;
+
+import lombok.Builder;
+
+@Builder
+public record PreSignedUrlItemResponse(String objectKey, String status, String url, String expiresAt, String message) {
+}
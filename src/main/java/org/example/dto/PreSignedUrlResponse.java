@@ -3,5 +3,5 @@ package org.example.dto;
 import lombok.Builder;
 
 @Builder
-public record PreSignedUrlResponse(String url) {
+public record PreSignedUrlResponse(String url, String expiresAt) {
 }
@@ -0,0 +1,7 @@
+package org.example.dto;
+
+import lombok.Builder;
+
+@Builder
+public record RenditionResponse(String url, int width, int height, long size) {
+}
@@ -0,0 +1,7 @@
+package org.example.dto;
+
+import lombok.Builder;
+
+@Builder
+public record UploadJobResponse(String jobId, String status, String message, BlogPostResponse blogPost) {
+}
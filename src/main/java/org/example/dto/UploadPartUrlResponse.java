@@ -0,0 +1,7 @@
+package org.example.dto;
+
+import lombok.Builder;
+
+@Builder
+public record UploadPartUrlResponse(int partNumber, String url) {
+}
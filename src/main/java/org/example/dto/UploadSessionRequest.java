@@ -0,0 +1,4 @@
+package org.example.dto;
+
+public record UploadSessionRequest(String contentType, long contentLength) {
+}
@@ -0,0 +1,22 @@
+package org.example.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Either a single presigned PUT ({@code url} plus the {@code headers} that must be sent with it) or a multipart
+ * upload ({@code uploadId} plus one presigned URL per part still to upload).
+ */
+@Builder
+public record UploadSessionResponse(
+        String jobId,
+        String url,
+        Map<String, String> headers,
+        String uploadId,
+        long partSize,
+        List<UploadPartUrlResponse> parts,
+        List<Integer> completedParts,
+        String expiresAt) {
+}
@@ -0,0 +1,10 @@
+package org.example.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record UserStatsResponse(long photoCount, long recycleCount, long bytesStored, List<BlogPostResponse> latest,
+                                String updatedAt) {
+}
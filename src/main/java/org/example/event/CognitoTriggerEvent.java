@@ -0,0 +1,19 @@
+package org.example.event;
+
+import java.util.Map;
+
+/**
+ * The parts of a Cognito user pool trigger event the Cognito Lambda acts on.
+ */
+public record CognitoTriggerEvent(String triggerSource, String userName, Map<String, String> userAttributes) {
+    public static final String POST_AUTHENTICATION = "PostAuthentication_Authentication";
+    public static final String POST_CONFIRMATION = "PostConfirmation_ConfirmSignUp";
+
+    public String email() {
+        return userAttributes.get("email");
+    }
+
+    public String name() {
+        return userAttributes.get("name");
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.event;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.example.event.EventJson.FACTORY;
+import static org.example.event.EventJson.expectObject;
+import static org.example.event.EventJson.isObject;
+import static org.example.event.EventJson.nextField;
+import static org.example.event.EventJson.text;
+
+/**
+ * Reads Cognito trigger events. Cognito expects the event back as the response, so the handler returns the bytes it
+ * received instead of writing the event out again.
+ */
+public final class CognitoTriggerEventCodec {
+
+    private CognitoTriggerEventCodec() {
+    }
+
+    public static CognitoTriggerEvent read(byte[] event) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(event)) {
+            parser.nextToken();
+            expectObject(parser);
+
+            String triggerSource = null;
+            String userName = null;
+            Map<String, String> userAttributes = Map.of();
+            for (String field = nextField(parser); field != null; field = nextField(parser)) {
+                switch (field) {
+                    case "triggerSource" -> triggerSource = text(parser);
+                    case "userName" -> userName = text(parser);
+                    case "request" -> userAttributes = readUserAttributes(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new CognitoTriggerEvent(triggerSource, userName, userAttributes);
+        }
+    }
+
+    private static Map<String, String> readUserAttributes(JsonParser parser) throws IOException {
+        Map<String, String> userAttributes = Map.of();
+        if (!isObject(parser)) {
+            return userAttributes;
+        }
+        for (String field = nextField(parser); field != null; field = nextField(parser)) {
+            if (!"userAttributes".equals(field)) {
+                parser.skipChildren();
+                continue;
+            }
+            if (!isObject(parser)) {
+                continue;
+            }
+
+            userAttributes = new HashMap<>();
+            for (String name = nextField(parser); name != null; name = nextField(parser)) {
+                userAttributes.put(name, text(parser));
+            }
+        }
+        return userAttributes;
+    }
+}
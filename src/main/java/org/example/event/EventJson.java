@@ -0,0 +1,59 @@
+package org.example.event;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Streaming JSON helpers shared by the event codecs. Only jackson-core is used: no data binding, no reflection.
+ */
+final class EventJson {
+    static final JsonFactory FACTORY = JsonFactory.builder().build();
+
+    private EventJson() {
+    }
+
+    /**
+     * Moves the parser onto the value of the next field of the current object, returning the field's name, or
+     * {@code null} at the end of the object.
+     */
+    static String nextField(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.FIELD_NAME) {
+            return null;
+        }
+        String name = parser.currentName();
+        parser.nextToken();
+        return name;
+    }
+
+    static void expectObject(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object but found " + parser.currentToken());
+        }
+    }
+
+    /**
+     * Whether the current value is an object; anything else is skipped.
+     */
+    static boolean isObject(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            return true;
+        }
+        parser.skipChildren();
+        return false;
+    }
+
+    /**
+     * The current scalar value as text, {@code null} for JSON null; objects and arrays are skipped and read as null.
+     */
+    static String text(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.event;
+
+/**
+ * Input of the image processing Lambda, either from the staging bucket's EventBridge "Object Created" event or from
+ * the Step Functions retry workflow. {@code retryAttempt} is the attempt that failed before, {@code null} on the
+ * first attempt; {@code email} and {@code fullName} are only known up front on retries.
+ */
+public record ImageProcessingEvent(String bucketName, String objectKey, String email, String fullName, Integer retryAttempt) {
+
+    public int attempt() {
+        return retryAttempt != null ? retryAttempt + 1 : 1;
+    }
+
+    public ImageProcessingEvent withOwner(String email, String fullName) {
+        return new ImageProcessingEvent(bucketName, objectKey, email, fullName, retryAttempt);
+    }
+}
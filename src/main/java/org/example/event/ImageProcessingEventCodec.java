@@ -0,0 +1,184 @@
+package org.example.event;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.Map;
+
+import static org.example.event.EventJson.FACTORY;
+import static org.example.event.EventJson.expectObject;
+import static org.example.event.EventJson.isObject;
+import static org.example.event.EventJson.nextField;
+import static org.example.event.EventJson.text;
+
+/**
+ * Reads and writes the image processing Lambda's events straight from and to the invocation streams.
+ */
+public final class ImageProcessingEventCodec {
+    public static final String RETRY_WORKFLOW = "image-processing-retry";
+    private static final String OBJECT_CREATED = "Object Created";
+
+    private ImageProcessingEventCodec() {
+    }
+
+    public static ImageProcessingEvent read(InputStream inputStream) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(inputStream)) {
+            parser.nextToken();
+            expectObject(parser);
+            return readEvent(parser);
+        }
+    }
+
+    /**
+     * Reads the invocation record Lambda sends to the on-failure destination: the original event as
+     * {@code requestPayload} and the error as {@code responsePayload}.
+     */
+    public static ImageProcessingFailure readFailure(String invocationRecord) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(invocationRecord)) {
+            parser.nextToken();
+            expectObject(parser);
+
+            ImageProcessingEvent event = null;
+            String errorType = null;
+            String errorMessage = null;
+            for (String field = nextField(parser); field != null; field = nextField(parser)) {
+                switch (field) {
+                    case "requestPayload" -> event = isObject(parser) ? readEvent(parser) : null;
+                    case "responsePayload" -> {
+                        if (isObject(parser)) {
+                            for (String error = nextField(parser); error != null; error = nextField(parser)) {
+                                switch (error) {
+                                    case "errorType" -> errorType = text(parser);
+                                    case "errorMessage" -> errorMessage = text(parser);
+                                    default -> parser.skipChildren();
+                                }
+                            }
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (event == null) {
+                throw new IOException("Invocation record has no request payload");
+            }
+            return new ImageProcessingFailure(event, errorType, errorMessage);
+        }
+    }
+
+    /**
+     * The input of a Step Functions execution that retries the event after {@code attempt} failed.
+     */
+    public static String writeRetry(ImageProcessingEvent event, int attempt) throws IOException {
+        StringWriter writer = new StringWriter(256);
+        try (JsonGenerator generator = FACTORY.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeStringField("bucketName", event.bucketName());
+            generator.writeStringField("objectKey", event.objectKey());
+            generator.writeStringField("email", event.email());
+            generator.writeStringField("fullName", event.fullName());
+            generator.writeStringField("workflowType", RETRY_WORKFLOW);
+            generator.writeNumberField("retryAttempt", attempt);
+            generator.writeEndObject();
+        }
+        return writer.toString();
+    }
+
+    public static void writeResult(ImageProcessingResult result, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = FACTORY.createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeStringField("pk", result.pk());
+            generator.writeStringField("sk", result.sk());
+            generator.writeStringField("fullName", result.fullName());
+            generator.writeStringField("imageUrl", result.imageUrl());
+            generator.writeStringField("uploadDate", result.uploadDate());
+            generator.writeObjectFieldStart("renditions");
+            for (Map.Entry<String, ImageProcessingResult.Rendition> entry : result.renditions().entrySet()) {
+                ImageProcessingResult.Rendition rendition = entry.getValue();
+                generator.writeObjectFieldStart(entry.getKey());
+                generator.writeStringField("url", rendition.url());
+                generator.writeNumberField("width", rendition.width());
+                generator.writeNumberField("height", rendition.height());
+                generator.writeNumberField("size", rendition.size());
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Reads the event object the parser is on, either format.
+     */
+    private static ImageProcessingEvent readEvent(JsonParser parser) throws IOException {
+        String detailType = null;
+        String[] detail = new String[2];
+        String bucketName = null;
+        String objectKey = null;
+        String email = null;
+        String fullName = null;
+        Integer retryAttempt = null;
+        for (String field = nextField(parser); field != null; field = nextField(parser)) {
+            switch (field) {
+                case "detail-type" -> detailType = text(parser);
+                case "detail" -> readDetail(parser, detail);
+                case "bucketName" -> bucketName = text(parser);
+                case "objectKey" -> objectKey = text(parser);
+                case "email" -> email = text(parser);
+                case "fullName" -> fullName = text(parser);
+                case "retryAttempt" -> retryAttempt = readInteger(parser);
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (OBJECT_CREATED.equals(detailType)) {
+            return new ImageProcessingEvent(detail[0], detail[1], null, null, null);
+        }
+        return new ImageProcessingEvent(bucketName, objectKey, email, fullName, retryAttempt);
+    }
+
+    /**
+     * Reads {@code detail.bucket.name} and {@code detail.object.key} of an S3 EventBridge event.
+     */
+    private static void readDetail(JsonParser parser, String[] detail) throws IOException {
+        if (!isObject(parser)) {
+            return;
+        }
+        for (String field = nextField(parser); field != null; field = nextField(parser)) {
+            switch (field) {
+                case "bucket" -> detail[0] = readField(parser, "name");
+                case "object" -> detail[1] = readField(parser, "key");
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private static String readField(JsonParser parser, String name) throws IOException {
+        if (!isObject(parser)) {
+            return null;
+        }
+        String value = null;
+        for (String field = nextField(parser); field != null; field = nextField(parser)) {
+            if (name.equals(field)) {
+                value = text(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return value;
+    }
+
+    private static Integer readInteger(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getValueAsInt();
+        }
+        String value = text(parser);
+        return value != null ? Integer.valueOf(value.trim()) : null;
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.event;
+
+/**
+ * An invocation of the image processing Lambda that failed without being retried, as delivered to its on-failure
+ * destination. Failures the handler caught itself were already retried or marked failed; the others, such as
+ * timeouts, out-of-memory errors and runtime crashes, still need their upload job and staged object cleaned up.
+ */
+public record ImageProcessingFailure(ImageProcessingEvent event, String errorType, String errorMessage) {
+    public static final String HANDLED_PREFIX = "ImageProcessingFailed: ";
+
+    public boolean handled() {
+        return errorMessage != null && errorMessage.startsWith(HANDLED_PREFIX);
+    }
+}
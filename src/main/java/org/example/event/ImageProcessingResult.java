@@ -0,0 +1,13 @@
+package org.example.event;
+
+import java.util.Map;
+
+/**
+ * Output of the image processing Lambda: the post it created, in the shape of the API's blog post responses.
+ */
+public record ImageProcessingResult(String pk, String sk, String fullName, String imageUrl, String uploadDate,
+                                    Map<String, Rendition> renditions) {
+
+    public record Rendition(String url, int width, int height, long size) {
+    }
+}
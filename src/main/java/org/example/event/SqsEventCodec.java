@@ -0,0 +1,82 @@
+package org.example.event;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.example.event.EventJson.FACTORY;
+import static org.example.event.EventJson.expectObject;
+import static org.example.event.EventJson.isObject;
+import static org.example.event.EventJson.nextField;
+import static org.example.event.EventJson.text;
+
+/**
+ * Reads the records of an SQS event. Only string attributes are kept; binary attributes are read as null.
+ */
+public final class SqsEventCodec {
+
+    private SqsEventCodec() {
+    }
+
+    public static List<SqsMessage> read(InputStream inputStream) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(inputStream)) {
+            parser.nextToken();
+            expectObject(parser);
+
+            List<SqsMessage> messages = new ArrayList<>();
+            for (String field = nextField(parser); field != null; field = nextField(parser)) {
+                if (!"Records".equals(field) || parser.currentToken() != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (isObject(parser)) {
+                        messages.add(readMessage(parser));
+                    }
+                }
+            }
+            return messages;
+        }
+    }
+
+    private static SqsMessage readMessage(JsonParser parser) throws IOException {
+        String messageId = null;
+        String body = null;
+        Map<String, String> attributes = new HashMap<>();
+        for (String field = nextField(parser); field != null; field = nextField(parser)) {
+            switch (field) {
+                case "messageId" -> messageId = text(parser);
+                case "body" -> body = text(parser);
+                case "messageAttributes" -> readAttributes(parser, attributes);
+                default -> parser.skipChildren();
+            }
+        }
+        return new SqsMessage(messageId, body, attributes);
+    }
+
+    private static void readAttributes(JsonParser parser, Map<String, String> attributes) throws IOException {
+        if (!isObject(parser)) {
+            return;
+        }
+        for (String name = nextField(parser); name != null; name = nextField(parser)) {
+            if (!isObject(parser)) {
+                continue;
+            }
+            String value = null;
+            for (String field = nextField(parser); field != null; field = nextField(parser)) {
+                if ("stringValue".equals(field)) {
+                    value = text(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            attributes.put(name, value);
+        }
+    }
+}
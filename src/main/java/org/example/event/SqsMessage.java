@@ -0,0 +1,13 @@
+package org.example.event;
+
+import java.util.Map;
+
+/**
+ * A message of an SQS event, with the string values of its message attributes.
+ */
+public record SqsMessage(String messageId, String body, Map<String, String> attributes) {
+
+    public String attribute(String name) {
+        return attributes.get(name);
+    }
+}
@@ -30,6 +30,12 @@ public class GlobalExceptionHandler {
         return MessageResponse.builder().message(e.getMessage()).build();
     }
 
+    @ExceptionHandler(CustomNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public MessageResponse customNotFoundExceptionHandler(CustomNotFoundException e) {
+        return MessageResponse.builder().message(e.getMessage()).build();
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<List<String>> validationErrorsHandler(MethodArgumentNotValidException ex) {
         List<String> errors = ex.getBindingResult().getFieldErrors()
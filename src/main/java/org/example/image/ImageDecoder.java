@@ -0,0 +1,65 @@
+package org.example.image;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Decodes an image at no more than a given number of output pixels. Larger images are decoded with source
+ * subsampling, so the reader only keeps every n-th pixel of every n-th row and the full resolution raster is never
+ * allocated; peak heap is bounded by the output size whatever the input size.
+ */
+public final class ImageDecoder {
+    public static final long DEFAULT_MAX_OUTPUT_PIXELS = 24_000_000L;
+
+    private ImageDecoder() {
+    }
+
+    public static BufferedImage decode(InputStream inputStream, ImageInfo info, long maxOutputPixels) throws IOException {
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName(info.format().formatName());
+            if (imageInputStream == null || !readers.hasNext()) {
+                throw new IOException("No image reader available for format: " + info.format().formatName());
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int factor = subsampling(info, maxOutputPixels);
+                if (factor > 1) {
+                    param.setSourceSubsampling(factor, factor, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Smallest subsampling factor that brings the decoded image within {@code maxOutputPixels}.
+     */
+    public static int subsampling(ImageInfo info, long maxOutputPixels) {
+        if (maxOutputPixels <= 0) {
+            throw new IllegalArgumentException("Max output pixels must be positive");
+        }
+
+        int factor = Math.max(1, (int) Math.sqrt((double) info.pixels() / maxOutputPixels));
+        while (outputPixels(info, factor) > maxOutputPixels) {
+            factor++;
+        }
+        return factor;
+    }
+
+    private static long outputPixels(ImageInfo info, int factor) {
+        long width = (info.width() + factor - 1) / factor;
+        long height = (info.height() + factor - 1) / factor;
+        return width * height;
+    }
+}
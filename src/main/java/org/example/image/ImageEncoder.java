@@ -0,0 +1,18 @@
+package org.example.image;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public final class ImageEncoder {
+
+    private ImageEncoder() {
+    }
+
+    public static void encode(BufferedImage image, ImageFormat format, OutputStream outputStream) throws IOException {
+        if (!ImageIO.write(image, format.formatName(), outputStream)) {
+            throw new IOException("No image writer available for format: " + format.formatName());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.image;
+
+/**
+ * Image formats the pipeline can decode and re-encode with the stock ImageIO plugins.
+ */
+public enum ImageFormat {
+    JPEG("jpg", "image/jpeg"),
+    PNG("png", "image/png"),
+    GIF("gif", "image/gif"),
+    BMP("bmp", "image/bmp");
+
+    private final String formatName;
+    private final String mimeType;
+
+    ImageFormat(String formatName, String mimeType) {
+        this.formatName = formatName;
+        this.mimeType = mimeType;
+    }
+
+    public String formatName() {
+        return formatName;
+    }
+
+    public String mimeType() {
+        return mimeType;
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.image;
+
+/**
+ * What {@link ImageProbe} learns from the header of an image, before any pixel data is decoded.
+ *
+ * @param orientation EXIF orientation (1-8), 1 when the image carries none
+ */
+public record ImageInfo(ImageFormat format, int width, int height, int orientation) {
+
+    public long pixels() {
+        return (long) width * height;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.image;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+public final class ImageOrientation {
+
+    private ImageOrientation() {
+    }
+
+    /**
+     * Rotates and flips the decoded image so it is displayed upright without its EXIF orientation, which ImageIO
+     * neither applies on read nor keeps on write.
+     */
+    public static BufferedImage normalize(BufferedImage image, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return image;
+        }
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean swapsAxes = orientation >= 5;
+
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> transform.scale(-1, 1);
+            case 3 -> transform.rotate(Math.PI);
+            case 4 -> transform.scale(1, -1);
+            case 5 -> {
+                transform.rotate(Math.PI / 2);
+                transform.scale(1, -1);
+            }
+            case 6 -> transform.rotate(Math.PI / 2);
+            case 7 -> {
+                transform.rotate(-Math.PI / 2);
+                transform.scale(1, -1);
+            }
+            case 8 -> transform.rotate(-Math.PI / 2);
+            default -> {
+            }
+        }
+
+        // Shift the transformed image back into the positive quadrant
+        Rectangle bounds = transform.createTransformedShape(new Rectangle(width, height)).getBounds();
+        AffineTransform translated = AffineTransform.getTranslateInstance(-bounds.x, -bounds.y);
+        translated.concatenate(transform);
+
+        int type = image.getTransparency() == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage oriented = new BufferedImage(swapsAxes ? height : width, swapsAxes ? width : height, type);
+        Graphics2D graphics = oriented.createGraphics();
+        graphics.drawImage(image, translated, null);
+        graphics.dispose();
+        return oriented;
+    }
+}
@@ -0,0 +1,273 @@
+package org.example.image;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the format, pixel dimensions and EXIF orientation of an image from its header only.
+ * <p>
+ * The format comes from the magic bytes, never from a client supplied content type. Probing a stream marks it and
+ * resets it afterwards, so the same stream can be handed to the decoder; at most {@link #PROBE_LIMIT} bytes are read.
+ */
+public final class ImageProbe {
+    public static final int PROBE_LIMIT = 256 * 1024;
+    public static final long DEFAULT_MAX_PIXELS = 100_000_000L;
+
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
+    private ImageProbe() {
+    }
+
+    public static ImageInfo probe(byte[] data) {
+        try {
+            return probe(new ByteArrayInputStream(data));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to read image header", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when the content is not a supported image or the header is malformed
+     */
+    public static ImageInfo probe(InputStream inputStream) throws IOException {
+        if (!inputStream.markSupported()) {
+            throw new IllegalArgumentException("Probing requires a stream that supports mark/reset");
+        }
+
+        inputStream.mark(PROBE_LIMIT);
+        try {
+            return readHeader(new HeaderReader(inputStream));
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Unable to read image header", e);
+        } finally {
+            inputStream.reset();
+        }
+    }
+
+    /**
+     * Rejects images whose decoded raster would be larger than {@code maxPixels}, before any of it is allocated.
+     */
+    public static void checkPixelLimit(ImageInfo info, long maxPixels) {
+        if (info.pixels() > maxPixels) {
+            throw new IllegalArgumentException("Image dimensions " + info.width() + "x" + info.height() + " exceed the limit of " + maxPixels + " pixels");
+        }
+    }
+
+    private static ImageInfo readHeader(HeaderReader reader) throws IOException {
+        int b0 = reader.readUnsignedByte();
+        int b1 = reader.readUnsignedByte();
+
+        if (b0 == 0xFF && b1 == 0xD8) {
+            return readJpeg(reader);
+        }
+        if (b0 == 0x89 && b1 == 'P') {
+            return readPng(reader);
+        }
+        if (b0 == 'G' && b1 == 'I') {
+            return readGif(reader);
+        }
+        if (b0 == 'B' && b1 == 'M') {
+            return readBmp(reader);
+        }
+        if (b0 == 'R' && b1 == 'I') {
+            reader.skip(6);
+            if (reader.readAscii(4).equals("WEBP")) {
+                throw new IllegalArgumentException("WebP images are not supported");
+            }
+        }
+        throw new IllegalArgumentException("Unsupported image format");
+    }
+
+    private static ImageInfo readPng(HeaderReader reader) throws IOException {
+        if (!reader.readAscii(2).equals("NG") || reader.readUnsignedByte() != 0x0D || reader.readUnsignedByte() != 0x0A
+                || reader.readUnsignedByte() != 0x1A || reader.readUnsignedByte() != 0x0A) {
+            throw new IllegalArgumentException("Unsupported image format");
+        }
+        reader.skip(4);
+        if (!reader.readAscii(4).equals("IHDR")) {
+            throw new IllegalArgumentException("Malformed PNG header");
+        }
+        int width = reader.readIntBigEndian();
+        int height = reader.readIntBigEndian();
+        return info(ImageFormat.PNG, width, height, 1);
+    }
+
+    private static ImageInfo readGif(HeaderReader reader) throws IOException {
+        String signature = reader.readAscii(4);
+        if (!signature.equals("F87a") && !signature.equals("F89a")) {
+            throw new IllegalArgumentException("Unsupported image format");
+        }
+        int width = reader.readShortLittleEndian();
+        int height = reader.readShortLittleEndian();
+        return info(ImageFormat.GIF, width, height, 1);
+    }
+
+    private static ImageInfo readBmp(HeaderReader reader) throws IOException {
+        reader.skip(12);
+        int headerSize = reader.readIntLittleEndian();
+        int width;
+        int height;
+        if (headerSize == 12) {
+            width = reader.readShortLittleEndian();
+            height = reader.readShortLittleEndian();
+        } else {
+            width = reader.readIntLittleEndian();
+            // Negative heights mark top-down bitmaps
+            height = Math.abs(reader.readIntLittleEndian());
+        }
+        return info(ImageFormat.BMP, width, height, 1);
+    }
+
+    private static ImageInfo readJpeg(HeaderReader reader) throws IOException {
+        int orientation = 1;
+
+        while (true) {
+            int marker = reader.readUnsignedByte();
+            if (marker != 0xFF) {
+                throw new IllegalArgumentException("Malformed JPEG header");
+            }
+            while (marker == 0xFF) {
+                marker = reader.readUnsignedByte();
+            }
+
+            // Standalone markers carry no length
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                throw new IllegalArgumentException("JPEG has no frame header before the image data");
+            }
+
+            int length = reader.readShortBigEndian() - 2;
+            if (length < 0) {
+                throw new IllegalArgumentException("Malformed JPEG header");
+            }
+
+            if (isStartOfFrame(marker)) {
+                reader.skip(1);
+                int height = reader.readShortBigEndian();
+                int width = reader.readShortBigEndian();
+                return info(ImageFormat.JPEG, width, height, orientation);
+            }
+
+            if (marker == 0xE1 && length >= 14) {
+                byte[] segment = reader.readBytes(length);
+                orientation = readExifOrientation(segment, orientation);
+            } else {
+                reader.skip(length);
+            }
+        }
+    }
+
+    private static boolean isStartOfFrame(int marker) {
+        // SOF0-SOF15, except DHT (C4), JPG (C8) and DAC (CC) which share the range
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    private static int readExifOrientation(byte[] segment, int fallback) {
+        if (!(segment[0] == 'E' && segment[1] == 'x' && segment[2] == 'i' && segment[3] == 'f' && segment[4] == 0 && segment[5] == 0)) {
+            return fallback;
+        }
+
+        int tiff = 6;
+        boolean littleEndian = segment[tiff] == 'I' && segment[tiff + 1] == 'I';
+        long ifdOffset = readUnsigned(segment, tiff + 4, 4, littleEndian);
+        if (ifdOffset < 8 || ifdOffset > segment.length - tiff - 2) {
+            return fallback;
+        }
+        int ifd = tiff + (int) ifdOffset;
+
+        int entries = (int) readUnsigned(segment, ifd, 2, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > segment.length) {
+                break;
+            }
+            if (readUnsigned(segment, entry, 2, littleEndian) == EXIF_ORIENTATION_TAG) {
+                int orientation = (int) readUnsigned(segment, entry + 8, 2, littleEndian);
+                return orientation >= 1 && orientation <= 8 ? orientation : fallback;
+            }
+        }
+        return fallback;
+    }
+
+    private static long readUnsigned(byte[] data, int offset, int length, boolean littleEndian) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int b = data[offset + (littleEndian ? length - 1 - i : i)] & 0xFF;
+            value = (value << 8) | b;
+        }
+        return value;
+    }
+
+    private static ImageInfo info(ImageFormat format, int width, int height, int orientation) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid image dimensions " + width + "x" + height);
+        }
+        return new ImageInfo(format, width, height, orientation);
+    }
+
+    private static final class HeaderReader {
+        private final InputStream inputStream;
+        private int position;
+
+        private HeaderReader(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        int readUnsignedByte() throws IOException {
+            checkLimit(1);
+            int b = inputStream.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            position++;
+            return b;
+        }
+
+        byte[] readBytes(int length) throws IOException {
+            checkLimit(length);
+            byte[] bytes = inputStream.readNBytes(length);
+            if (bytes.length < length) {
+                throw new EOFException();
+            }
+            position += length;
+            return bytes;
+        }
+
+        void skip(int length) throws IOException {
+            checkLimit(length);
+            inputStream.skipNBytes(length);
+            position += length;
+        }
+
+        String readAscii(int length) throws IOException {
+            return new String(readBytes(length), StandardCharsets.US_ASCII);
+        }
+
+        int readShortBigEndian() throws IOException {
+            return (readUnsignedByte() << 8) | readUnsignedByte();
+        }
+
+        int readShortLittleEndian() throws IOException {
+            return readUnsignedByte() | (readUnsignedByte() << 8);
+        }
+
+        int readIntBigEndian() throws IOException {
+            return (readShortBigEndian() << 16) | readShortBigEndian();
+        }
+
+        int readIntLittleEndian() throws IOException {
+            return readShortLittleEndian() | (readShortLittleEndian() << 16);
+        }
+
+        private void checkLimit(int length) {
+            if (position + length > PROBE_LIMIT) {
+                throw new IllegalArgumentException("Image header is larger than " + PROBE_LIMIT + " bytes");
+            }
+        }
+    }
+}
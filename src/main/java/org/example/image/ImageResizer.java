@@ -0,0 +1,55 @@
+package org.example.image;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public final class ImageResizer {
+
+    private ImageResizer() {
+    }
+
+    /**
+     * Scales the image down so its longest edge is at most {@code maxDimension}, keeping the aspect ratio.
+     * Returns the source unchanged when it is already small enough.
+     */
+    public static BufferedImage fit(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (Math.max(width, height) <= maxDimension) {
+            return source;
+        }
+
+        double scale = (double) maxDimension / Math.max(width, height);
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        return resize(source, targetWidth, targetHeight);
+    }
+
+    /**
+     * Downscales in successive halving steps with bilinear interpolation. A single bilinear or bicubic pass
+     * only samples a few source pixels per target pixel and aliases badly on large reductions.
+     */
+    public static BufferedImage resize(BufferedImage source, int targetWidth, int targetHeight) {
+        int type = source.getTransparency() == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+
+        do {
+            width = Math.max(width / 2, targetWidth);
+            height = Math.max(height / 2, targetHeight);
+
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+}
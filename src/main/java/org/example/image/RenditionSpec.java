@@ -0,0 +1,42 @@
+package org.example.image;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A downscaled copy of the processed image, bounded by {@code maxDimension} on its longest edge.
+ */
+public record RenditionSpec(String name, int maxDimension) {
+
+    public static final String DEFAULT_RENDITIONS = "thumbnail:320,medium:1024";
+
+    /**
+     * Parses a comma separated list of {@code name:maxDimension} pairs, largest rendition first.
+     */
+    public static List<RenditionSpec> parse(String value) {
+        List<RenditionSpec> specs = new ArrayList<>();
+        if (value == null || value.isBlank()) {
+            return specs;
+        }
+
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2 || parts[0].isBlank()) {
+                throw new IllegalArgumentException("Invalid rendition definition: " + entry);
+            }
+            int maxDimension = Integer.parseInt(parts[1].trim());
+            if (maxDimension <= 0) {
+                throw new IllegalArgumentException("Invalid rendition size: " + entry);
+            }
+            specs.add(new RenditionSpec(parts[0].trim(), maxDimension));
+        }
+
+        specs.sort(Comparator.comparingInt(RenditionSpec::maxDimension).reversed());
+        return specs;
+    }
+
+    public String objectKey(String imageKey) {
+        return imageKey + "_" + name;
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.image;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Draws the "NAME - date" watermark in the bottom-right corner of an image.
+ * <p>
+ * Fonts and metrics are kept per font size. The watermark is drawn in two parts: the "NAME - " prefix, which is the
+ * same for every photo of a user, and the timestamp, which changes every second. When the same prefix is needed
+ * again, its shadowed text is rasterized once into a small ARGB tile that is only composited onto the image; a prefix
+ * seen for the first time is drawn directly, since rasterizing a tile that is never reused costs more than drawing
+ * the text once. The timestamp is always drawn directly, right after the prefix.
+ */
+public class WatermarkRenderer {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm:ss");
+    private static final Color SHADOW_COLOR = new Color(0, 0, 0, 128);
+    private static final Color TEXT_COLOR = new Color(255, 255, 255, 192);
+    private static final int SHADOW_OFFSET = 2;
+    private static final int MARGIN = 10;
+    private static final int MAX_CACHED_TILES = 32;
+
+    private final Map<Integer, FontMetrics> fontMetrics = new ConcurrentHashMap<>();
+    private final Map<TileKey, Tile> tiles = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TileKey, Tile> eldest) {
+            return size() > MAX_CACHED_TILES;
+        }
+    });
+
+    public void apply(BufferedImage image, String name) {
+        apply(image, name, LocalDateTime.now());
+    }
+
+    public void apply(BufferedImage image, String name, LocalDateTime date) {
+        int fontSize = image.getWidth() / 40;
+        if (fontSize <= 0) {
+            return;
+        }
+
+        String prefix = name.toUpperCase() + " - ";
+        String timestamp = DATE_FORMAT.format(date);
+        FontMetrics metrics = fontMetrics.computeIfAbsent(fontSize, WatermarkRenderer::metrics);
+        Tile tile = tiles.computeIfAbsent(new TileKey(prefix, fontSize), key -> new Tile(key.text(), metrics));
+
+        int x = image.getWidth() - tile.textWidth - metrics.stringWidth(timestamp) - MARGIN;
+        int y = image.getHeight() - metrics.getHeight();
+
+        Graphics2D graphics = image.createGraphics();
+        if (tile.image == null && !tile.used) {
+            tile.used = true;
+            drawText(graphics, tile.text, metrics, x, y);
+        } else {
+            if (tile.image == null) {
+                tile.image = rasterize(tile, metrics);
+            }
+            graphics.drawImage(tile.image, x - tile.padding, y - tile.padding, null);
+        }
+        drawText(graphics, timestamp, metrics, x + tile.textWidth, y);
+        graphics.dispose();
+    }
+
+    private static FontMetrics metrics(int fontSize) {
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scratch.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        FontMetrics metrics = graphics.getFontMetrics(new Font(Font.SANS_SERIF, Font.BOLD, fontSize));
+        graphics.dispose();
+        return metrics;
+    }
+
+    private static BufferedImage rasterize(Tile tile, FontMetrics metrics) {
+        // Padding keeps glyph overhang past the advance width from being clipped at the tile edges
+        int size = 2 * tile.padding + SHADOW_OFFSET;
+        BufferedImage image = new BufferedImage(tile.textWidth + size, metrics.getHeight() + size, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D graphics = image.createGraphics();
+        drawText(graphics, tile.text, metrics, tile.padding, tile.padding);
+        graphics.dispose();
+        return image;
+    }
+
+    private static void drawText(Graphics2D graphics, String text, FontMetrics metrics, int x, int y) {
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setFont(metrics.getFont());
+
+        graphics.setColor(SHADOW_COLOR);
+        graphics.drawString(text, x + SHADOW_OFFSET, y + metrics.getAscent() + SHADOW_OFFSET);
+
+        graphics.setColor(TEXT_COLOR);
+        graphics.drawString(text, x, y + metrics.getAscent());
+    }
+
+    private record TileKey(String text, int fontSize) {
+    }
+
+    private static final class Tile {
+        private final String text;
+        private final int textWidth;
+        private final int padding;
+        private volatile boolean used;
+        private volatile BufferedImage image;
+
+        private Tile(String text, FontMetrics metrics) {
+            this.text = text;
+            this.textWidth = metrics.stringWidth(text);
+            this.padding = metrics.getFont().getSize() / 4;
+        }
+    }
+}
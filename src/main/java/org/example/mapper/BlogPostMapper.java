@@ -1,10 +1,16 @@
 package org.example.mapper;
 
 import org.example.dto.BlogPostResponse;
+import org.example.dto.RenditionResponse;
 import org.example.model.BlogPost;
+import org.example.model.BlogPostListing;
+import org.example.model.Rendition;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Service
 public class BlogPostMapper {
     @Value("${aws.region}")
@@ -17,8 +23,39 @@ public class BlogPostMapper {
                 .pk(blogPost.getPk())
                 .sk(blogPost.getSk())
                 .fullName(blogPost.getFullName())
-                .imageUrl("https://" + bucket + ".s3." + region + ".amazonaws.com/" + blogPost.getImageKey())
+                .imageUrl(toUrl(blogPost.getImageKey()))
                 .uploadDate(blogPost.getUploadDate())
+                .renditions(toRenditionResponses(blogPost.getRenditions()))
+                .build();
+    }
+
+    public BlogPostResponse toBlogPostResponse(BlogPostListing listing) {
+        return BlogPostResponse.builder()
+                .pk(listing.getPk())
+                .sk(listing.getSk())
+                .fullName(listing.getFullName())
+                .imageUrl(toUrl(listing.getImageKey()))
+                .uploadDate(listing.getUploadDate())
+                .renditions(toRenditionResponses(listing.getRenditions()))
                 .build();
     }
+
+    private Map<String, RenditionResponse> toRenditionResponses(Map<String, Rendition> renditions) {
+        Map<String, RenditionResponse> responses = new LinkedHashMap<>();
+        if (renditions == null) {
+            return responses;
+        }
+
+        renditions.forEach((name, rendition) -> responses.put(name, RenditionResponse.builder()
+                .url(toUrl(rendition.getKey()))
+                .width(rendition.getWidth())
+                .height(rendition.getHeight())
+                .size(rendition.getSize())
+                .build()));
+        return responses;
+    }
+
+    private String toUrl(String key) {
+        return "https://" + bucket + ".s3." + region + ".amazonaws.com/" + key;
+    }
 }
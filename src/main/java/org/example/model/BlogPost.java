@@ -9,8 +9,13 @@ import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttri
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 
 @DynamoDbBean
 @Setter
@@ -19,13 +24,39 @@ import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortK
 @NoArgsConstructor
 @AllArgsConstructor
 public class BlogPost {
+    public static final String PHOTO_TYPE = "photo";
+    /**
+     * Live posts are spread over this many {@code type} partitions of the TypeDateIndex, so the feed has no single hot key.
+     * Changing it moves posts between shards, which needs a backfill of {@code type}.
+     */
+    public static final int TYPE_SHARDS = 8;
+
     private String pk;
     private String sk;
     private String type;
+    private String owner;
     private String fullName;
     private String imageKey;
     private String uploadDate;
     private int deleteStatus;
+    private String recycledAt;
+    private Map<String, Rendition> renditions;
+
+    public static String typeShard(String photoId) {
+        return PHOTO_TYPE + "#" + Math.floorMod(photoId.hashCode(), TYPE_SHARDS);
+    }
+
+    /**
+     * Every {@code type} partition the feed is read from, including the unsharded one written before sharding.
+     */
+    public static List<String> typeShards() {
+        List<String> shards = new ArrayList<>();
+        for (int shard = 0; shard < TYPE_SHARDS; shard++) {
+            shards.add(PHOTO_TYPE + "#" + shard);
+        }
+        shards.add(PHOTO_TYPE);
+        return shards;
+    }
 
     @DynamoDbPartitionKey
     @DynamoDbAttribute(value = "pk")
@@ -35,17 +66,27 @@ public class BlogPost {
 
     @DynamoDbSortKey
     @DynamoDbAttribute(value = "sk")
-    @DynamoDbSecondaryPartitionKey(indexNames = "OwnerIndex")
+    @DynamoDbSecondaryPartitionKey(indexNames = "RecycleIndex")
     public String getSk() {
         return sk;
     }
 
     @DynamoDbAttribute(value = "type")
-    @DynamoDbSecondaryPartitionKey(indexNames = "TypeIndex")
+    @DynamoDbSecondaryPartitionKey(indexNames = "TypeDateIndex")
     public String getType() {
         return type;
     }
 
+    /**
+     * Owner email, only set while the post is live; together with {@code type} it keeps recycled posts out of the
+     * listing indexes.
+     */
+    @DynamoDbAttribute(value = "owner")
+    @DynamoDbSecondaryPartitionKey(indexNames = "OwnerDateIndex")
+    public String getOwner() {
+        return owner;
+    }
+
     @DynamoDbAttribute(value = "fullName")
     public String getFullName() {
         return fullName;
@@ -57,6 +98,7 @@ public class BlogPost {
     }
 
     @DynamoDbAttribute(value = "uploadDate")
+    @DynamoDbSecondarySortKey(indexNames = {"OwnerDateIndex", "TypeDateIndex"})
     public String getUploadDate() {
         return uploadDate;
     }
@@ -65,4 +107,18 @@ public class BlogPost {
     public int getDeleteStatus() {
         return deleteStatus;
     }
+
+    /**
+     * Only set while the post is in the recycle bin.
+     */
+    @DynamoDbAttribute(value = "recycledAt")
+    @DynamoDbSecondarySortKey(indexNames = "RecycleIndex")
+    public String getRecycledAt() {
+        return recycledAt;
+    }
+
+    @DynamoDbAttribute(value = "renditions")
+    public Map<String, Rendition> getRenditions() {
+        return renditions;
+    }
 }
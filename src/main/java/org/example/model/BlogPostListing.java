@@ -0,0 +1,51 @@
+package org.example.model;
+
+import lombok.Builder;
+import lombok.Value;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticImmutableTableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read model for the listing indexes: only the attributes a {@link org.example.dto.BlogPostResponse} is built from.
+ * The schemas are declared up front instead of being introspected from the bean classes.
+ */
+@Value
+@Builder
+public class BlogPostListing {
+    String pk;
+    String sk;
+    String fullName;
+    String imageKey;
+    String uploadDate;
+    Map<String, Rendition> renditions;
+
+    private static final TableSchema<Rendition> RENDITION_SCHEMA = StaticTableSchema.builder(Rendition.class)
+            .newItemSupplier(Rendition::new)
+            .addAttribute(String.class, a -> a.name("key").getter(Rendition::getKey).setter(Rendition::setKey))
+            .addAttribute(Integer.class, a -> a.name("width").getter(Rendition::getWidth).setter(Rendition::setWidth))
+            .addAttribute(Integer.class, a -> a.name("height").getter(Rendition::getHeight).setter(Rendition::setHeight))
+            .addAttribute(Long.class, a -> a.name("size").getter(Rendition::getSize).setter(Rendition::setSize))
+            .build();
+
+    public static final TableSchema<BlogPostListing> TABLE_SCHEMA = StaticImmutableTableSchema
+            .builder(BlogPostListing.class, BlogPostListingBuilder.class)
+            .newItemBuilder(BlogPostListing::builder, BlogPostListingBuilder::build)
+            .addAttribute(String.class, a -> a.name("pk").getter(BlogPostListing::getPk).setter(BlogPostListingBuilder::pk))
+            .addAttribute(String.class, a -> a.name("sk").getter(BlogPostListing::getSk).setter(BlogPostListingBuilder::sk))
+            .addAttribute(String.class, a -> a.name("fullName").getter(BlogPostListing::getFullName).setter(BlogPostListingBuilder::fullName))
+            .addAttribute(String.class, a -> a.name("imageKey").getter(BlogPostListing::getImageKey).setter(BlogPostListingBuilder::imageKey))
+            .addAttribute(String.class, a -> a.name("uploadDate").getter(BlogPostListing::getUploadDate).setter(BlogPostListingBuilder::uploadDate))
+            .addAttribute(EnhancedType.mapOf(EnhancedType.of(String.class), EnhancedType.documentOf(Rendition.class, RENDITION_SCHEMA)),
+                    a -> a.name("renditions").getter(BlogPostListing::getRenditions).setter(BlogPostListingBuilder::renditions))
+            .build();
+
+    /**
+     * Attributes read by a listing query; the listing indexes project these besides their keys.
+     */
+    public static final List<String> ATTRIBUTES = TABLE_SCHEMA.attributeNames();
+}
@@ -0,0 +1,42 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+
+@DynamoDbBean
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Rendition {
+    private String key;
+    private int width;
+    private int height;
+    private long size;
+
+    @DynamoDbAttribute(value = "key")
+    public String getKey() {
+        return key;
+    }
+
+    @DynamoDbAttribute(value = "width")
+    public int getWidth() {
+        return width;
+    }
+
+    @DynamoDbAttribute(value = "height")
+    public int getHeight() {
+        return height;
+    }
+
+    @DynamoDbAttribute(value = "size")
+    public long getSize() {
+        return size;
+    }
+}
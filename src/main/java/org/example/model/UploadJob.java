@@ -0,0 +1,95 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+
+/**
+ * Status of an image upload while it is processed. Stored next to the blog post it produces, under the same
+ * partition key (the job id is the object key) and a sort key derived from the owner's email.
+ */
+@DynamoDbBean
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadJob {
+    public static final String TYPE = "upload-job";
+    public static final long RETENTION_SECONDS = 7 * 24 * 60 * 60;
+
+    private static final String SORT_KEY_PREFIX = "job#";
+
+    private String pk;
+    private String sk;
+    private String type;
+    private String status;
+    private String message;
+    private String uploadId;
+    private long contentLength;
+    private String createdAt;
+    private String updatedAt;
+    private long expiresAt;
+
+    public static String sortKey(String owner) {
+        return SORT_KEY_PREFIX + owner;
+    }
+
+    @DynamoDbPartitionKey
+    @DynamoDbAttribute(value = "pk")
+    public String getPk() {
+        return pk;
+    }
+
+    @DynamoDbSortKey
+    @DynamoDbAttribute(value = "sk")
+    public String getSk() {
+        return sk;
+    }
+
+    @DynamoDbAttribute(value = "type")
+    public String getType() {
+        return type;
+    }
+
+    @DynamoDbAttribute(value = "status")
+    public String getStatus() {
+        return status;
+    }
+
+    @DynamoDbAttribute(value = "message")
+    public String getMessage() {
+        return message;
+    }
+
+    @DynamoDbAttribute(value = "uploadId")
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    @DynamoDbAttribute(value = "contentLength")
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    @DynamoDbAttribute(value = "createdAt")
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    @DynamoDbAttribute(value = "updatedAt")
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @DynamoDbAttribute(value = "expiresAt")
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
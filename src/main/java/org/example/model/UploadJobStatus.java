@@ -0,0 +1,8 @@
+package org.example.model;
+
+public enum UploadJobStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,58 @@
+package org.example.model;
+
+import lombok.Builder;
+import lombok.Value;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticImmutableTableSchema;
+
+import java.util.List;
+
+/**
+ * Per-user aggregates maintained from the table's stream by {@link org.example.UserStatsStreamLambda}, stored next to
+ * the user item under the user's email. {@code latest} holds the newest live posts, newest first.
+ */
+@Value
+@Builder(toBuilder = true)
+public class UserStats {
+    public static final String SORT_KEY = "stats#";
+    public static final String TYPE = "user-stats";
+    public static final int DEFAULT_LATEST_POSTS = 12;
+
+    String pk;
+    String sk;
+    String type;
+    long photoCount;
+    long recycleCount;
+    long bytesStored;
+    List<BlogPostListing> latest;
+    Long version;
+    String updatedAt;
+
+    public static final TableSchema<UserStats> TABLE_SCHEMA = StaticImmutableTableSchema
+            .builder(UserStats.class, UserStatsBuilder.class)
+            .newItemBuilder(UserStats::builder, UserStatsBuilder::build)
+            .addAttribute(String.class, a -> a.name("pk").getter(UserStats::getPk).setter(UserStatsBuilder::pk)
+                    .tags(StaticAttributeTags.primaryPartitionKey()))
+            .addAttribute(String.class, a -> a.name("sk").getter(UserStats::getSk).setter(UserStatsBuilder::sk)
+                    .tags(StaticAttributeTags.primarySortKey()))
+            .addAttribute(String.class, a -> a.name("type").getter(UserStats::getType).setter(UserStatsBuilder::type))
+            .addAttribute(Long.class, a -> a.name("photoCount").getter(UserStats::getPhotoCount).setter(UserStatsBuilder::photoCount))
+            .addAttribute(Long.class, a -> a.name("recycleCount").getter(UserStats::getRecycleCount).setter(UserStatsBuilder::recycleCount))
+            .addAttribute(Long.class, a -> a.name("bytesStored").getter(UserStats::getBytesStored).setter(UserStatsBuilder::bytesStored))
+            .addAttribute(EnhancedType.listOf(EnhancedType.documentOf(BlogPostListing.class, BlogPostListing.TABLE_SCHEMA)),
+                    a -> a.name("latest").getter(UserStats::getLatest).setter(UserStatsBuilder::latest))
+            .addAttribute(Long.class, a -> a.name("version").getter(UserStats::getVersion).setter(UserStatsBuilder::version))
+            .addAttribute(String.class, a -> a.name("updatedAt").getter(UserStats::getUpdatedAt).setter(UserStatsBuilder::updatedAt))
+            .build();
+
+    public static UserStats empty(String owner) {
+        return UserStats.builder()
+                .pk(owner)
+                .sk(SORT_KEY)
+                .type(TYPE)
+                .latest(List.of())
+                .build();
+    }
+}
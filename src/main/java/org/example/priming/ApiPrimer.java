@@ -0,0 +1,187 @@
+package org.example.priming;
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.model.ApiGatewayRequestIdentity;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequestContext;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.model.Headers;
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import org.crac.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Runs synthetic requests through every layer of the API before a SnapStart snapshot is taken, so the class loading,
+ * handler mapping, Jackson serializers, SDK marshallers and signers and JWT decoder setup that the first real requests
+ * would pay for are already part of the snapshot.
+ * <p>
+ * Priming never leaves the function: backends are stubbed by {@link PrimingInterceptor}, requests are signed by
+ * {@link PrimingCredentialsProvider} and the token signing keys are not fetched (see {@link Priming#offline}). No
+ * connection or credentials from priming end up in the snapshot, so there is nothing to reset after restore.
+ */
+public class ApiPrimer implements Resource {
+    private static final String PHOTO_ID = "priming";
+    private static final String BULK_BODY = "{\"photoIds\": [\"" + PHOTO_ID + "\"]}";
+    // Well formed but signed by nobody: the real decoder looks up its key, which is not fetched while priming, and rejects it
+    private static final String FOREIGN_TOKEN = encode("{\"alg\":\"RS256\",\"kid\":\"priming\"}") + "."
+            + encode("{\"sub\":\"priming\"}") + "." + encode("priming");
+
+    private static final List<PrimingRequest> REQUESTS = List.of(
+            new PrimingRequest("GET", "/ping", null, false),
+            new PrimingRequest("GET", "/health", null, false),
+            new PrimingRequest("GET", "/health/cache", null, false),
+            new PrimingRequest("GET", "/blog", null, false),
+            new PrimingRequest("GET", "/blog", null, true),
+            new PrimingRequest("GET", "/blog/user", null, true),
+            new PrimingRequest("GET", "/blog/user/recycle", null, true),
+            new PrimingRequest("GET", "/blog/user/stats", null, true),
+            new PrimingRequest("GET", "/blog/upload/" + PHOTO_ID, null, true),
+            new PrimingRequest("POST", "/blog/recycle/bulk", "{\"photoIds\": []}", true),
+            new PrimingRequest("POST", "/blog/recycle/bulk", BULK_BODY, true),
+            new PrimingRequest("POST", "/blog/recycle/restore/bulk", BULK_BODY, true),
+            new PrimingRequest("POST", "/blog/delete/bulk", BULK_BODY, true),
+            new PrimingRequest("DELETE", "/blog/recycle/" + PHOTO_ID, null, true),
+            new PrimingRequest("PATCH", "/blog/recycle/restore/" + PHOTO_ID, null, true),
+            new PrimingRequest("PATCH", "/blog/generate-url/" + PHOTO_ID, null, true),
+            new PrimingRequest("POST", "/blog/generate-url/batch", "{\"objectKeys\": [\"" + PHOTO_ID + "\"]}", true));
+
+    private final LambdaContainerHandler<AwsProxyRequest, AwsProxyResponse, ?, ?> handler;
+
+    public ApiPrimer(LambdaContainerHandler<AwsProxyRequest, AwsProxyResponse, ?, ?> handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void beforeCheckpoint(org.crac.Context<? extends Resource> context) {
+        long start = System.nanoTime();
+        String token = Priming.start();
+        try {
+            // Goes to the real decoder, up to the key lookup
+            handler.proxy(request("GET", "/blog", null, FOREIGN_TOKEN), PrimingContext.INSTANCE);
+            for (PrimingRequest primingRequest : REQUESTS) {
+                handler.proxy(request(primingRequest.method(), primingRequest.path(), primingRequest.body(),
+                                primingRequest.authenticated() ? token : null),
+                        PrimingContext.INSTANCE);
+            }
+        } finally {
+            Priming.stop();
+        }
+        System.out.println("Primed " + REQUESTS.size() + " requests in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    @Override
+    public void afterRestore(org.crac.Context<? extends Resource> context) {
+        // Priming is over before the snapshot is taken; this only guards against a checkpoint that was interrupted
+        Priming.stop();
+    }
+
+    private static AwsProxyRequest request(String method, String path, String body, String token) {
+        Headers headers = new Headers();
+        headers.putSingle("Accept", "application/json");
+        if (body != null) {
+            headers.putSingle("Content-Type", "application/json");
+        }
+        if (token != null) {
+            headers.putSingle("Authorization", "Bearer " + token);
+        }
+
+        ApiGatewayRequestIdentity identity = new ApiGatewayRequestIdentity();
+        identity.setSourceIp("127.0.0.1");
+        AwsProxyRequestContext requestContext = new AwsProxyRequestContext();
+        requestContext.setRequestId(PHOTO_ID);
+        requestContext.setHttpMethod(method);
+        requestContext.setIdentity(identity);
+
+        AwsProxyRequest request = new AwsProxyRequest();
+        request.setHttpMethod(method);
+        request.setPath(path);
+        request.setBody(body);
+        request.setMultiValueHeaders(headers);
+        request.setRequestContext(requestContext);
+        return request;
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record PrimingRequest(String method, String path, String body, boolean authenticated) {
+    }
+
+    private enum PrimingContext implements Context {
+        INSTANCE;
+
+        private static final LambdaLogger LOGGER = new LambdaLogger() {
+            @Override
+            public void log(String message) {
+                System.out.println(message);
+            }
+
+            @Override
+            public void log(byte[] message) {
+                System.out.println(new String(message, StandardCharsets.UTF_8));
+            }
+        };
+
+        @Override
+        public String getAwsRequestId() {
+            return PHOTO_ID;
+        }
+
+        @Override
+        public String getLogGroupName() {
+            return null;
+        }
+
+        @Override
+        public String getLogStreamName() {
+            return null;
+        }
+
+        @Override
+        public String getFunctionName() {
+            return System.getenv("AWS_LAMBDA_FUNCTION_NAME");
+        }
+
+        @Override
+        public String getFunctionVersion() {
+            return System.getenv("AWS_LAMBDA_FUNCTION_VERSION");
+        }
+
+        @Override
+        public String getInvokedFunctionArn() {
+            return null;
+        }
+
+        @Override
+        public CognitoIdentity getIdentity() {
+            return null;
+        }
+
+        @Override
+        public ClientContext getClientContext() {
+            return null;
+        }
+
+        @Override
+        public int getRemainingTimeInMillis() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public int getMemoryLimitInMB() {
+            return 0;
+        }
+
+        @Override
+        public LambdaLogger getLogger() {
+            return LOGGER;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.priming;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.PreSignedUrlResponse;
+import org.example.repository.impl.CachedBlogRepository;
+import org.example.util.TtlCache;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spring stops lifecycle beans before a CRaC checkpoint, after {@link ApiPrimer} has run, and starts them again after
+ * restore. Clearing the caches here keeps pages and URLs cached during init or priming out of the snapshot; URLs
+ * signed with the credentials of the snapshot would stop working after restore.
+ */
+@Component
+@RequiredArgsConstructor
+public class CheckpointLifecycle implements SmartLifecycle {
+    private final CachedBlogRepository cachedBlogRepository;
+    private final TtlCache<String, PreSignedUrlResponse> preSignedUrlCache;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        cachedBlogRepository.invalidateAll();
+        preSignedUrlCache.invalidateAll();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.priming;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.Callable;
+
+/**
+ * Process-wide switch for the priming phase before a SnapStart snapshot. While it is on, AWS SDK calls are stopped
+ * before they leave the function, signed with placeholder credentials, nothing else is fetched from outside the
+ * function and a one-off bearer token is accepted as a synthetic user.
+ */
+public final class Priming {
+    public static final String EMAIL = "priming@example.invalid";
+
+    private static volatile String token;
+
+    private Priming() {
+    }
+
+    /**
+     * Turns priming on and returns the token that authenticates the synthetic requests until {@link #stop()}.
+     */
+    public static String start() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        return token;
+    }
+
+    public static void stop() {
+        token = null;
+    }
+
+    public static boolean isActive() {
+        return token != null;
+    }
+
+    /**
+     * Wraps a fetch from outside the function so that it fails instead while priming, which keeps its connection and
+     * result out of the snapshot.
+     */
+    public static <T> Callable<T> offline(Callable<T> fetch) {
+        return () -> {
+            if (isActive()) {
+                throw new IOException("Not fetched while priming");
+            }
+            return fetch.call();
+        };
+    }
+
+    static boolean isPrimingToken(String candidate) {
+        String current = token;
+        return current != null && candidate != null && MessageDigest.isEqual(
+                current.getBytes(StandardCharsets.US_ASCII), candidate.getBytes(StandardCharsets.US_ASCII));
+    }
+}
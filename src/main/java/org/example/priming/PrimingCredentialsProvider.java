@@ -0,0 +1,25 @@
+package org.example.priming;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+
+/**
+ * Signs with placeholder credentials while priming, so the SDK clients never fetch the function's credentials before
+ * the snapshot is taken. Credentials fetched then would be restored, with the connection they came over, into every
+ * sandbox started from the snapshot, possibly long after they expired.
+ */
+public class PrimingCredentialsProvider implements AwsCredentialsProvider {
+    private static final AwsCredentials PLACEHOLDER = AwsBasicCredentials.create("priming", "priming");
+
+    private final AwsCredentialsProvider delegate;
+
+    public PrimingCredentialsProvider(AwsCredentialsProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public AwsCredentials resolveCredentials() {
+        return Priming.isActive() ? PLACEHOLDER : delegate.resolveCredentials();
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.priming;
+
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+
+/**
+ * Stubs the backends while priming: requests are marshalled and signed as usual, then failed before anything is
+ * sent, so no connection ends up in the snapshot and no item is read or written.
+ */
+public class PrimingInterceptor implements ExecutionInterceptor {
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        if (Priming.isActive()) {
+            throw SdkClientException.create("Request not sent while priming");
+        }
+    }
+}
@@ -1,23 +1,36 @@
 package org.example.repository;
 
 import org.example.dto.BlogPostResponse;
+import org.example.dto.PageResponse;
 import org.example.model.BlogPost;
+import org.example.model.Rendition;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public interface BlogRepository {
     void save(BlogPost metadata);
 
     Optional<BlogPost> findByPhotoIdAndOwner(String photoId, String owner);
 
-    List<BlogPostResponse> findAll();
+    PageResponse<BlogPostResponse> findAll(int pageSize, String cursor);
 
-    List<BlogPostResponse> findAllByUserEmail(String owner);
+    PageResponse<BlogPostResponse> findAllByUserEmail(String owner, int pageSize, String cursor);
 
-    boolean deleteBlogPost(String photoId, String owner);
+    Optional<BlogPost> deleteBlogPost(String photoId, String owner);
 
-    void updateDeleteStatusAndImageKey(String photoId, String owner, int i, String imageKey);
+    boolean updateDeleteStatusAndImageKey(String photoId, String owner, int i, String imageKey, Map<String, Rendition> renditions);
 
-    List<BlogPostResponse> findAllByUserAndDeleteStatus(String owner, int i);
+    PageResponse<BlogPostResponse> findAllRecycledByUser(String owner, int pageSize, String cursor);
+
+    List<BlogPost> findByPhotoIdsAndOwner(Collection<String> photoIds, String owner);
+
+    PageResponse<BlogPost> findRecycledPostsByUser(String owner, int pageSize, String cursor);
+
+    BulkUpdateResult updateDeleteStatusAndImageKeys(String owner, int i, List<BlogPost> posts);
+
+    Set<String> deleteBlogPosts(String owner, Collection<String> photoIds);
 }
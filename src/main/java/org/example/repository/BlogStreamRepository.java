@@ -0,0 +1,16 @@
+package org.example.repository;
+
+import org.example.dto.BlogPostResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Listings read without blocking: items are handed to the consumer, in order, as each index page arrives, and the
+ * returned future completes with the cursor of the next page.
+ */
+public interface BlogStreamRepository {
+    CompletableFuture<String> streamAllByUserEmail(String owner, int pageSize, String cursor, Consumer<BlogPostResponse> consumer);
+
+    CompletableFuture<String> streamAllRecycledByUser(String owner, int pageSize, String cursor, Consumer<BlogPostResponse> consumer);
+}
@@ -0,0 +1,11 @@
+package org.example.repository;
+
+import java.util.Set;
+
+/**
+ * Outcome of a bulk conditional update, by photo id. {@code rejected} posts failed their condition, {@code failed}
+ * posts were not updated because the request failed. A post in none of the sets may or may not have been updated:
+ * the request failed and reading the post back failed too.
+ */
+public record BulkUpdateResult(Set<String> updated, Set<String> rejected, Set<String> failed) {
+}
@@ -0,0 +1,11 @@
+package org.example.repository;
+
+import org.example.model.UploadJob;
+
+import java.util.Optional;
+
+public interface UploadJobRepository {
+    void save(UploadJob uploadJob);
+
+    Optional<UploadJob> findByJobIdAndOwner(String jobId, String owner);
+}
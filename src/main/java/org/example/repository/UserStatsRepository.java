@@ -0,0 +1,9 @@
+package org.example.repository;
+
+import org.example.model.UserStats;
+
+import java.util.Optional;
+
+public interface UserStatsRepository {
+    Optional<UserStats> findByOwner(String owner);
+}
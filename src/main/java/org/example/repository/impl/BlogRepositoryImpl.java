@@ -2,24 +2,57 @@ package org.example.repository.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.example.dto.BlogPostResponse;
+import org.example.dto.PageResponse;
+import org.example.exception.CustomBadRequestException;
 import org.example.mapper.BlogPostMapper;
 import org.example.model.BlogPost;
+import org.example.model.BlogPostListing;
+import org.example.model.Rendition;
 import org.example.repository.BlogRepository;
+import org.example.repository.BulkUpdateResult;
+import org.example.util.Batches;
+import org.example.util.PageCursor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
-import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,10 +62,30 @@ public class BlogRepositoryImpl implements BlogRepository {
     private String tableName;
 
     private final DynamoDbEnhancedClient dynamoDbEnhancedClient;
+    private final DynamoDbClient dynamoDbClient;
+    private final ExecutorService queryExecutor;
+
+    static final String OWNER_INDEX = "OwnerDateIndex";
+    static final String TYPE_INDEX = "TypeDateIndex";
+    static final String RECYCLE_INDEX = "RecycleIndex";
+    private static final Comparator<ShardHead> NEWEST_FIRST = Comparator
+            .comparing((ShardHead head) -> head.item().get("uploadDate").s()).reversed();
+    private static final AttributeValue EMPTY = AttributeValue.builder().s("").build();
+    private static final int MAX_BATCH_GET = 100;
+    private static final int MAX_BATCH_WRITE = 25;
+    private static final int MAX_TRANSACT_ITEMS = 100;
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+    private static final long BACKOFF_MILLIS = 25;
+    private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
 
     public static final TableSchema<BlogPost> TABLE_SCHEMA = TableSchema
             .fromBean(BlogPost.class);
 
+    // Placeholders for every projected attribute, so the projection never trips over a reserved word
+    private static final Map<String, String> LISTING_NAMES = BlogPostListing.ATTRIBUTES.stream()
+            .collect(Collectors.toUnmodifiableMap(name -> "#" + name, name -> name));
+    private static final String LISTING_PROJECTION = String.join(", ", LISTING_NAMES.keySet());
+
     private DynamoDbTable<BlogPost> getTable() {
         return dynamoDbEnhancedClient.table(tableName, TABLE_SCHEMA);
     }
@@ -46,80 +99,400 @@ public class BlogRepositoryImpl implements BlogRepository {
         return Optional.ofNullable(getTable().getItem(r -> r.key(key)));
     }
 
-    public List<BlogPostResponse> findAll() {
+    /**
+     * Queries every TypeDateIndex shard in parallel and merges them newest first. The cursor keeps a position per shard:
+     * the last item taken from it, empty for a shard not read from yet. Exhausted shards are left out.
+     */
+    public PageResponse<BlogPostResponse> findAll(int pageSize, String cursor) {
+        Map<String, Map<String, AttributeValue>> positions = decodeFeedCursor(cursor);
+
+        Map<String, Future<QueryResponse>> queries = new LinkedHashMap<>();
+        positions.forEach((shard, startKey) -> queries.put(shard,
+                queryExecutor.submit(() -> query(TYPE_INDEX, "type", shard, pageSize, startKey))));
+
+        Map<String, QueryResponse> responses = new LinkedHashMap<>();
+        PriorityQueue<ShardHead> heads = new PriorityQueue<>(NEWEST_FIRST);
+        queries.forEach((shard, query) -> {
+            QueryResponse response = await(query);
+            responses.put(shard, response);
+            if (!response.items().isEmpty()) {
+                heads.add(new ShardHead(shard, response.items(), 0));
+            }
+        });
+
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        Map<String, Integer> taken = new HashMap<>();
+        Map<String, Map<String, AttributeValue>> nextPositions = new LinkedHashMap<>(positions);
+        while (items.size() < pageSize && !heads.isEmpty()) {
+            ShardHead head = heads.poll();
+            Map<String, AttributeValue> item = head.item();
+            items.add(item);
+            taken.merge(head.shard(), 1, Integer::sum);
+            nextPositions.put(head.shard(), Map.of("pk", item.get("pk"), "sk", item.get("sk"), "uploadDate", item.get("uploadDate")));
+            if (head.index() + 1 < head.items().size()) {
+                heads.add(new ShardHead(head.shard(), head.items(), head.index() + 1));
+            }
+        }
+        responses.forEach((shard, response) -> {
+            if (taken.getOrDefault(shard, 0) == response.items().size() && !response.hasLastEvaluatedKey()) {
+                nextPositions.remove(shard);
+            }
+        });
+
+        return PageResponse.<BlogPostResponse>builder()
+                .items(items.stream()
+                        .map(BlogPostListing.TABLE_SCHEMA::mapToItem)
+                        .map(blogPostMapper::toBlogPostResponse)
+                        .toList())
+                .nextCursor(encodeFeedCursor(nextPositions))
+                .build();
+    }
+
+    public PageResponse<BlogPostResponse> findAllByUserEmail(String userEmail, int pageSize, String cursor) {
+        return queryPage(OWNER_INDEX, "owner", userEmail, pageSize, cursor);
+    }
+
+    /**
+     * Deletes the post in one conditional call and returns the deleted item, or empty if the owner has no such post.
+     */
+    public Optional<BlogPost> deleteBlogPost(String photoId, String owner) {
+        try {
+            // The enhanced client asks for ALL_OLD, so the deleted item comes back with the response
+            return Optional.ofNullable(getTable().deleteItem(r -> r
+                    .key(getKey(photoId, owner))
+                    .conditionExpression(Expression.builder().expression("attribute_exists(pk)").build())));
+        } catch (ConditionalCheckFailedException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Updates only the attributes that change when a post moves to or from the recycle bin. Returns false if the owner
+     * has no such post or it is already in the requested state.
+     */
+    public boolean updateDeleteStatusAndImageKey(String photoId, String owner, int i, String imageKey, Map<String, Rendition> renditions) {
+        Update update = updateStatement(photoId, owner, i, imageKey, renditions);
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(update.tableName())
+                    .key(update.key())
+                    .updateExpression(update.updateExpression())
+                    .conditionExpression(update.conditionExpression())
+                    .expressionAttributeNames(update.expressionAttributeNames())
+                    .expressionAttributeValues(update.expressionAttributeValues())
+                    .returnValues(ReturnValue.NONE)
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Applies {@link #updateDeleteStatusAndImageKey} to many posts, one transaction per 100 posts. Posts whose condition
+     * fails are left out and the rest of their transaction is retried. A transaction that still fails may or may not
+     * have been applied, so its posts are read back to tell which state they are in.
+     */
+    public BulkUpdateResult updateDeleteStatusAndImageKeys(String owner, int i, List<BlogPost> posts) {
+        Set<String> updated = new HashSet<>();
+        Set<String> rejected = new HashSet<>();
+        Set<String> failed = new HashSet<>();
+        for (List<BlogPost> batch : Batches.partition(posts, MAX_TRANSACT_ITEMS)) {
+            List<BlogPost> pending = new ArrayList<>(batch);
+            for (int attempt = 1; !pending.isEmpty(); attempt++) {
+                if (attempt > MAX_BATCH_ATTEMPTS) {
+                    resolve(owner, i, pending, updated, failed);
+                    break;
+                }
+                List<TransactWriteItem> items = pending.stream()
+                        .map(post -> TransactWriteItem.builder()
+                                .update(updateStatement(post.getPk(), owner, i, post.getImageKey(), post.getRenditions()))
+                                .build())
+                        .toList();
+                try {
+                    dynamoDbClient.transactWriteItems(r -> r.transactItems(items));
+                    pending.forEach(post -> updated.add(post.getPk()));
+                    break;
+                } catch (TransactionCanceledException e) {
+                    List<CancellationReason> reasons = e.cancellationReasons();
+                    List<BlogPost> retry = new ArrayList<>();
+                    for (int index = 0; index < pending.size(); index++) {
+                        if (index >= reasons.size() || !CONDITIONAL_CHECK_FAILED.equals(reasons.get(index).code())) {
+                            retry.add(pending.get(index));
+                        } else {
+                            rejected.add(pending.get(index).getPk());
+                        }
+                    }
+                    if (retry.size() == pending.size()) {
+                        // Conflicting or throttled, not rejected
+                        backOff(attempt);
+                    }
+                    pending = retry;
+                } catch (DynamoDbException e) {
+                    System.err.println(e.getMessage());
+                    backOff(attempt);
+                }
+            }
+        }
+        return new BulkUpdateResult(updated, rejected, failed);
+    }
+
+    /**
+     * Sorts posts whose transaction kept failing by a consistent read: a post already pointing at its new image key
+     * was updated, any other was not. When the read fails too, the posts are left out of both sets.
+     */
+    private void resolve(String owner, int i, List<BlogPost> posts, Set<String> updated, Set<String> failed) {
+        DynamoDbTable<BlogPost> table = getTable();
+        ReadBatch.Builder<BlogPost> readBatch = ReadBatch.builder(BlogPost.class).mappedTableResource(table);
+        posts.forEach(post -> readBatch.addGetItem(GetItemEnhancedRequest.builder()
+                .key(getKey(post.getPk(), owner))
+                .consistentRead(true)
+                .build()));
+        Map<String, BlogPost> stored = new HashMap<>();
+        try {
+            dynamoDbEnhancedClient.batchGetItem(r -> r.readBatches(readBatch.build()))
+                    .resultsForTable(table)
+                    .forEach(post -> stored.put(post.getPk(), post));
+        } catch (DynamoDbException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+        for (BlogPost post : posts) {
+            BlogPost current = stored.get(post.getPk());
+            boolean applied = current != null && current.getDeleteStatus() == i && post.getImageKey().equals(current.getImageKey());
+            (applied ? updated : failed).add(post.getPk());
+        }
+    }
+
+    private Update updateStatement(String photoId, String owner, int i, String imageKey, Map<String, Rendition> renditions) {
+        Map<String, String> names = new HashMap<>();
+        names.put("#deleteStatus", "deleteStatus");
+        names.put("#imageKey", "imageKey");
+        names.put("#renditions", "renditions");
+        names.put("#type", "type");
+        names.put("#owner", "owner");
+        names.put("#recycledAt", "recycledAt");
+
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":deleteStatus", AttributeValue.builder().n(String.valueOf(i)).build());
+        values.put(":imageKey", AttributeValue.builder().s(imageKey).build());
+
+        List<String> set = new ArrayList<>(List.of("#deleteStatus = :deleteStatus", "#imageKey = :imageKey"));
+        List<String> remove = new ArrayList<>();
+        if (renditions != null) {
+            values.put(":renditions", TABLE_SCHEMA.attributeValue(BlogPost.builder().renditions(renditions).build(), "renditions"));
+            set.add("#renditions = :renditions");
+        } else {
+            remove.add("#renditions");
+        }
+        // Index keys move between the live indexes and the recycle index
+        if (i == 1) {
+            values.put(":recycledAt", AttributeValue.builder().s(LocalDateTime.now().toString()).build());
+            set.add("#recycledAt = :recycledAt");
+            remove.addAll(List.of("#type", "#owner"));
+        } else {
+            values.put(":type", AttributeValue.builder().s(BlogPost.typeShard(photoId)).build());
+            values.put(":owner", AttributeValue.builder().s(owner).build());
+            set.addAll(List.of("#type = :type", "#owner = :owner"));
+            remove.add("#recycledAt");
+        }
+
+        String updateExpression = "SET " + String.join(", ", set);
+        if (!remove.isEmpty()) {
+            updateExpression += " REMOVE " + String.join(", ", remove);
+        }
+
+        return Update.builder()
+                .tableName(tableName)
+                .key(getKey(photoId, owner).keyMap(TABLE_SCHEMA, TableMetadata.primaryIndexName()))
+                .updateExpression(updateExpression)
+                // The key includes the owner, so this also rejects other users' posts
+                .conditionExpression("attribute_exists(pk) AND #deleteStatus <> :deleteStatus")
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .build();
+    }
+
+    public List<BlogPost> findByPhotoIdsAndOwner(Collection<String> photoIds, String owner) {
         DynamoDbTable<BlogPost> table = getTable();
+        List<BlogPost> posts = new ArrayList<>();
+        for (List<String> batch : Batches.partition(List.copyOf(new LinkedHashSet<>(photoIds)), MAX_BATCH_GET)) {
+            ReadBatch.Builder<BlogPost> readBatch = ReadBatch.builder(BlogPost.class).mappedTableResource(table);
+            batch.forEach(photoId -> readBatch.addGetItem(getKey(photoId, owner)));
+            // Unprocessed keys are requested again as further result pages
+            dynamoDbEnhancedClient.batchGetItem(r -> r.readBatches(readBatch.build()))
+                    .resultsForTable(table)
+                    .forEach(posts::add);
+        }
+        return posts;
+    }
+
+    /**
+     * Deletes the posts with BatchWriteItem, 25 at a time, retrying unprocessed items. Batch writes are unconditional,
+     * but the key includes the owner, so only the owner's posts can be deleted. Returns the ids of the deleted posts.
+     */
+    public Set<String> deleteBlogPosts(String owner, Collection<String> photoIds) {
+        DynamoDbTable<BlogPost> table = getTable();
+        Set<String> deleted = new HashSet<>(photoIds);
+        for (List<String> batch : Batches.partition(List.copyOf(deleted), MAX_BATCH_WRITE)) {
+            List<Key> pending = batch.stream().map(photoId -> getKey(photoId, owner)).toList();
+            for (int attempt = 1; !pending.isEmpty(); attempt++) {
+                if (attempt > MAX_BATCH_ATTEMPTS) {
+                    pending.forEach(key -> deleted.remove(key.partitionKeyValue().s()));
+                    break;
+                }
+                if (attempt > 1) {
+                    backOff(attempt - 1);
+                }
+                WriteBatch.Builder<BlogPost> writeBatch = WriteBatch.builder(BlogPost.class).mappedTableResource(table);
+                pending.forEach(writeBatch::addDeleteItem);
+                pending = dynamoDbEnhancedClient.batchWriteItem(r -> r.writeBatches(writeBatch.build()))
+                        .unprocessedDeleteItemsForTable(table);
+            }
+        }
+        return deleted;
+    }
 
-        DynamoDbIndex<BlogPost> index = table.index("TypeIndex");
+    public PageResponse<BlogPostResponse> findAllRecycledByUser(String owner, int pageSize, String cursor) {
+        return queryPage(RECYCLE_INDEX, "sk", owner, pageSize, cursor);
+    }
 
-        Expression filterExpression = Expression.builder()
-                .expression("deleteStatus <> :deletedStatus")
-                .expressionValues(Map.of(":deletedStatus", AttributeValue.builder().n("1").build()))
+    public PageResponse<BlogPost> findRecycledPostsByUser(String owner, int pageSize, String cursor) {
+        QueryResponse response = query(RECYCLE_INDEX, "sk", owner, pageSize, decodeCursor(cursor, "sk", owner));
+        return PageResponse.<BlogPost>builder()
+                .items(response.items().stream()
+                        .map(item -> {
+                            BlogPost post = TABLE_SCHEMA.mapToItem(item);
+                            // Not projected, but everything in the recycle index is recycled
+                            post.setDeleteStatus(1);
+                            return post;
+                        })
+                        .toList())
+                .nextCursor(PageCursor.encode(response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null))
                 .build();
+    }
 
-        return index.query(r -> r
-                        .queryConditional(QueryConditional.keyEqualTo(
-                                Key.builder().partitionValue("photo").build()
-                        ))
-                        .filterExpression(filterExpression))
-                .stream()
-                .flatMap(page -> page.items().stream())
-                .sorted(Comparator.comparing(BlogPost::getUploadDate, Comparator.nullsLast(Comparator.reverseOrder())))
-                .map(blogPostMapper::toBlogPostResponse)
-                .toList();
+    private PageResponse<BlogPostResponse> queryPage(String indexName, String partitionAttribute, String partitionValue,
+                                                     int pageSize, String cursor) {
+        QueryResponse response = query(indexName, partitionAttribute, partitionValue, pageSize,
+                decodeCursor(cursor, partitionAttribute, partitionValue));
+        return PageResponse.<BlogPostResponse>builder()
+                .items(response.items().stream()
+                        .map(BlogPostListing.TABLE_SCHEMA::mapToItem)
+                        .map(blogPostMapper::toBlogPostResponse)
+                        .toList())
+                .nextCursor(PageCursor.encode(response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null))
+                .build();
     }
 
+    private QueryResponse query(String indexName, String partitionAttribute, String partitionValue,
+                                int pageSize, Map<String, AttributeValue> startKey) {
+        return dynamoDbClient.query(listingQuery(tableName, indexName, partitionAttribute, partitionValue, pageSize, startKey));
+    }
 
-    public List<BlogPostResponse> findAllByUserEmail(String userEmail) {
-        DynamoDbIndex<BlogPost> index = getTable().index("OwnerIndex");
+    /**
+     * Reads one page, newest first, from one of the sparse listing indexes, which only ever contain the items
+     * the listing returns. Only the attributes of {@link BlogPostListing} are read.
+     */
+    static QueryRequest listingQuery(String tableName, String indexName, String partitionAttribute, String partitionValue,
+                                     int limit, Map<String, AttributeValue> startKey) {
+        Map<String, String> names = new HashMap<>(LISTING_NAMES);
+        names.put("#partition", partitionAttribute);
 
-        return index.query(r -> r.queryConditional(
-                                QueryConditional.keyEqualTo(k -> k.partitionValue(userEmail)))
-                        .filterExpression(Expression.builder()
-                                .expression("deleteStatus <> :deletedStatus")
-                                .expressionValues(Map.of(":deletedStatus", AttributeValue.builder().n("1").build()))
-                                .build()))
-                .stream()
-                .flatMap(page -> page.items().stream())
-                .sorted(Comparator.comparing(BlogPost::getUploadDate, Comparator.nullsLast(Comparator.reverseOrder())))
-                .map(blogPostMapper::toBlogPostResponse)
-                .toList();
+        return QueryRequest.builder()
+                .tableName(tableName)
+                .indexName(indexName)
+                .keyConditionExpression("#partition = :partition")
+                .projectionExpression(LISTING_PROJECTION)
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(Map.of(":partition", AttributeValue.builder().s(partitionValue).build()))
+                .scanIndexForward(false)
+                .limit(limit)
+                .exclusiveStartKey(startKey)
+                .build();
     }
 
-    public boolean deleteBlogPost(String photoId, String owner) {
-        Optional<BlogPost> blogPost = findByPhotoIdAndOwner(photoId, owner);
+    private static QueryResponse await(Future<QueryResponse> query) {
+        try {
+            return query.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading the feed", e);
+        }
+    }
 
-        if (blogPost.isEmpty()) {
-            return false;
+    /**
+     * Start keys per shard; every shard starts from the top without a cursor.
+     */
+    private Map<String, Map<String, AttributeValue>> decodeFeedCursor(String cursor) {
+        Map<String, Map<String, AttributeValue>> positions = new LinkedHashMap<>();
+        if (cursor == null || cursor.isBlank()) {
+            BlogPost.typeShards().forEach(shard -> positions.put(shard, null));
+            return positions;
         }
 
-        getTable().deleteItem(getKey(photoId, owner));
-        return true;
+        try {
+            List<String> shards = BlogPost.typeShards();
+            PageCursor.decode(cursor).forEach((shard, position) -> {
+                if (!shards.contains(shard)) {
+                    throw new IllegalArgumentException("Unknown shard " + shard);
+                }
+                Map<String, AttributeValue> startKey = PageCursor.decode(position.s());
+                if (startKey != null) {
+                    startKey.put("type", AttributeValue.builder().s(shard).build());
+                }
+                positions.put(shard, startKey);
+            });
+            return positions;
+        } catch (IllegalArgumentException e) {
+            throw new CustomBadRequestException("Invalid cursor");
+        }
     }
 
-    public void updateDeleteStatusAndImageKey(String photoId, String owner, int i, String imageKey) {
-        Optional<BlogPost> blogPost = findByPhotoIdAndOwner(photoId, owner);
+    private static String encodeFeedCursor(Map<String, Map<String, AttributeValue>> positions) {
+        Map<String, AttributeValue> cursor = new LinkedHashMap<>();
+        positions.forEach((shard, startKey) -> {
+            Map<String, AttributeValue> position = startKey == null ? null : new LinkedHashMap<>(startKey);
+            if (position != null) {
+                // Implied by the shard
+                position.remove("type");
+            }
+            String encoded = PageCursor.encode(position);
+            cursor.put(shard, AttributeValue.builder().s(encoded == null ? "" : encoded).build());
+        });
+        return PageCursor.encode(cursor);
+    }
 
-        if (blogPost.isPresent()) {
-            blogPost.get().setDeleteStatus(i);
-            blogPost.get().setImageKey(imageKey);
-            save(blogPost.get());
+    private record ShardHead(String shard, List<Map<String, AttributeValue>> items, int index) {
+        Map<String, AttributeValue> item() {
+            return items.get(index);
         }
     }
 
-    public List<BlogPostResponse> findAllByUserAndDeleteStatus(String owner, int i) {
-        DynamoDbIndex<BlogPost> index = getTable().index("OwnerIndex");
+    static Map<String, AttributeValue> decodeCursor(String cursor, String partitionAttribute, String partitionValue) {
+        try {
+            Map<String, AttributeValue> startKey = PageCursor.decode(cursor);
+            // A cursor is only valid for the listing it was issued for
+            if (startKey != null && !partitionValue.equals(startKey.getOrDefault(partitionAttribute, EMPTY).s())) {
+                throw new IllegalArgumentException("Cursor belongs to another listing");
+            }
+            return startKey;
+        } catch (IllegalArgumentException e) {
+            throw new CustomBadRequestException("Invalid cursor");
+        }
+    }
 
-        return index.query(r -> r.queryConditional(
-                                QueryConditional.keyEqualTo(k -> k.partitionValue(owner)))
-                        .filterExpression(Expression.builder()
-                                .expression("deleteStatus = :deletedStatus")
-                                .expressionValues(Map.of(":deletedStatus", AttributeValue.builder().n("1").build()))
-                                .build()))
-                .stream()
-                .flatMap(page -> page.items().stream())
-                .sorted(Comparator.comparing(BlogPost::getUploadDate, Comparator.nullsLast(Comparator.reverseOrder())))
-                .map(blogPostMapper::toBlogPostResponse)
-                .toList();
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(BACKOFF_MILLIS << attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     private Key getKey(String photoId, String owner) {
@@ -0,0 +1,64 @@
+package org.example.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.BlogPostResponse;
+import org.example.mapper.BlogPostMapper;
+import org.example.model.BlogPostListing;
+import org.example.repository.BlogStreamRepository;
+import org.example.util.PageCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+public class BlogStreamRepositoryImpl implements BlogStreamRepository {
+    // Items per query, so a large listing page arrives in several smaller pages
+    private static final int QUERY_LIMIT = 100;
+
+    private final BlogPostMapper blogPostMapper;
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+    @Value("${aws.dynamodb.table}")
+    private String tableName;
+
+    public CompletableFuture<String> streamAllByUserEmail(String owner, int pageSize, String cursor, Consumer<BlogPostResponse> consumer) {
+        return stream(BlogRepositoryImpl.OWNER_INDEX, "owner", owner, pageSize, cursor, consumer);
+    }
+
+    public CompletableFuture<String> streamAllRecycledByUser(String owner, int pageSize, String cursor, Consumer<BlogPostResponse> consumer) {
+        return stream(BlogRepositoryImpl.RECYCLE_INDEX, "sk", owner, pageSize, cursor, consumer);
+    }
+
+    private CompletableFuture<String> stream(String indexName, String partitionAttribute, String partitionValue,
+                                             int pageSize, String cursor, Consumer<BlogPostResponse> consumer) {
+        // Decoded up front, so an invalid cursor fails the request before anything is written
+        Map<String, AttributeValue> startKey = BlogRepositoryImpl.decodeCursor(cursor, partitionAttribute, partitionValue);
+        return query(indexName, partitionAttribute, partitionValue, pageSize, startKey, consumer);
+    }
+
+    private CompletableFuture<String> query(String indexName, String partitionAttribute, String partitionValue,
+                                            int remaining, Map<String, AttributeValue> startKey, Consumer<BlogPostResponse> consumer) {
+        return dynamoDbAsyncClient.query(BlogRepositoryImpl.listingQuery(tableName, indexName, partitionAttribute,
+                        partitionValue, Math.min(remaining, QUERY_LIMIT), startKey))
+                .thenCompose(response -> {
+                    response.items().stream()
+                            .map(BlogPostListing.TABLE_SCHEMA::mapToItem)
+                            .map(blogPostMapper::toBlogPostResponse)
+                            .forEach(consumer);
+
+                    int left = remaining - response.items().size();
+                    if (!response.hasLastEvaluatedKey()) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    if (left <= 0) {
+                        return CompletableFuture.completedFuture(PageCursor.encode(response.lastEvaluatedKey()));
+                    }
+                    return query(indexName, partitionAttribute, partitionValue, left, response.lastEvaluatedKey(), consumer);
+                });
+    }
+}
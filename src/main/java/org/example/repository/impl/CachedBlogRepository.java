@@ -0,0 +1,124 @@
+package org.example.repository.impl;
+
+import org.example.dto.BlogPostResponse;
+import org.example.dto.PageResponse;
+import org.example.model.BlogPost;
+import org.example.model.Rendition;
+import org.example.repository.BlogRepository;
+import org.example.repository.BulkUpdateResult;
+import org.example.util.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Caches the feed and per-user listing pages of {@link BlogRepositoryImpl} for a short TTL. Writes made through this
+ * repository drop the feed and the affected user's pages, but only in the container that handled them: every other
+ * container, and every post created by the image processing Lambda, catches up once the TTL has passed. The TTL is
+ * therefore the consistency bound of both listings and has to stay short.
+ */
+@Primary
+@Service
+public class CachedBlogRepository implements BlogRepository {
+    private final BlogRepositoryImpl blogRepository;
+    private final TtlCache<PageKey, PageResponse<BlogPostResponse>> feedCache;
+    private final TtlCache<PageKey, PageResponse<BlogPostResponse>> userCache;
+
+    public CachedBlogRepository(
+            BlogRepositoryImpl blogRepository,
+            @Value("${app.cache.feed.ttl:PT5S}") Duration ttl,
+            @Value("${app.cache.feed.max-entries:256}") int maxEntries
+    ) {
+        this.blogRepository = blogRepository;
+        this.feedCache = new TtlCache<>(ttl, maxEntries);
+        this.userCache = new TtlCache<>(ttl, maxEntries);
+    }
+
+    public void save(BlogPost metadata) {
+        blogRepository.save(metadata);
+        invalidate(metadata.getSk());
+    }
+
+    public Optional<BlogPost> findByPhotoIdAndOwner(String photoId, String owner) {
+        return blogRepository.findByPhotoIdAndOwner(photoId, owner);
+    }
+
+    public PageResponse<BlogPostResponse> findAll(int pageSize, String cursor) {
+        return feedCache.get(new PageKey(null, pageSize, cursor), key -> blogRepository.findAll(pageSize, cursor));
+    }
+
+    public PageResponse<BlogPostResponse> findAllByUserEmail(String owner, int pageSize, String cursor) {
+        return userCache.get(new PageKey(owner, pageSize, cursor), key -> blogRepository.findAllByUserEmail(owner, pageSize, cursor));
+    }
+
+    public Optional<BlogPost> deleteBlogPost(String photoId, String owner) {
+        try {
+            return blogRepository.deleteBlogPost(photoId, owner);
+        } finally {
+            invalidate(owner);
+        }
+    }
+
+    public boolean updateDeleteStatusAndImageKey(String photoId, String owner, int i, String imageKey, Map<String, Rendition> renditions) {
+        try {
+            return blogRepository.updateDeleteStatusAndImageKey(photoId, owner, i, imageKey, renditions);
+        } finally {
+            invalidate(owner);
+        }
+    }
+
+    public PageResponse<BlogPostResponse> findAllRecycledByUser(String owner, int pageSize, String cursor) {
+        return blogRepository.findAllRecycledByUser(owner, pageSize, cursor);
+    }
+
+    public List<BlogPost> findByPhotoIdsAndOwner(Collection<String> photoIds, String owner) {
+        return blogRepository.findByPhotoIdsAndOwner(photoIds, owner);
+    }
+
+    public PageResponse<BlogPost> findRecycledPostsByUser(String owner, int pageSize, String cursor) {
+        return blogRepository.findRecycledPostsByUser(owner, pageSize, cursor);
+    }
+
+    public BulkUpdateResult updateDeleteStatusAndImageKeys(String owner, int i, List<BlogPost> posts) {
+        try {
+            return blogRepository.updateDeleteStatusAndImageKeys(owner, i, posts);
+        } finally {
+            invalidate(owner);
+        }
+    }
+
+    public Set<String> deleteBlogPosts(String owner, Collection<String> photoIds) {
+        try {
+            return blogRepository.deleteBlogPosts(owner, photoIds);
+        } finally {
+            invalidate(owner);
+        }
+    }
+
+    public Map<String, TtlCache.Stats> cacheStats() {
+        return Map.of("feed", feedCache.stats(), "user", userCache.stats());
+    }
+
+    /**
+     * Drops every cached page, e.g. before a snapshot that may be restored long after it was taken.
+     */
+    public void invalidateAll() {
+        feedCache.invalidateAll();
+        userCache.invalidateAll();
+    }
+
+    private void invalidate(String owner) {
+        feedCache.invalidateAll();
+        userCache.invalidateIf(key -> key.owner().equals(owner));
+    }
+
+    private record PageKey(String owner, int pageSize, String cursor) {
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.model.UploadJob;
+import org.example.repository.UploadJobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class UploadJobRepositoryImpl implements UploadJobRepository {
+    @Value("${aws.dynamodb.table}")
+    private String tableName;
+
+    private final DynamoDbEnhancedClient dynamoDbEnhancedClient;
+
+    public static final TableSchema<UploadJob> TABLE_SCHEMA = TableSchema
+            .fromBean(UploadJob.class);
+
+    private DynamoDbTable<UploadJob> getTable() {
+        return dynamoDbEnhancedClient.table(tableName, TABLE_SCHEMA);
+    }
+
+    public void save(UploadJob uploadJob) {
+        getTable().putItem(uploadJob);
+    }
+
+    public Optional<UploadJob> findByJobIdAndOwner(String jobId, String owner) {
+        Key key = Key.builder()
+                .partitionValue(jobId)
+                .sortValue(UploadJob.sortKey(owner))
+                .build();
+        return Optional.ofNullable(getTable().getItem(r -> r.key(key)));
+    }
+}
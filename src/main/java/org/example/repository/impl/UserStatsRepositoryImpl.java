@@ -0,0 +1,33 @@
+package org.example.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.model.UserStats;
+import org.example.repository.UserStatsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class UserStatsRepositoryImpl implements UserStatsRepository {
+    @Value("${aws.dynamodb.table}")
+    private String tableName;
+
+    private final DynamoDbEnhancedClient dynamoDbEnhancedClient;
+
+    private DynamoDbTable<UserStats> getTable() {
+        return dynamoDbEnhancedClient.table(tableName, UserStats.TABLE_SCHEMA);
+    }
+
+    public Optional<UserStats> findByOwner(String owner) {
+        Key key = Key.builder()
+                .partitionValue(owner)
+                .sortValue(UserStats.SORT_KEY)
+                .build();
+        return Optional.ofNullable(getTable().getItem(r -> r.key(key)));
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.security;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers tokens that passed verification until they expire, so a client sending the same bearer token with every
+ * request has its signature checked once. Entries are keyed by a hash of the token, never the token itself; tokens
+ * without an expiry and tokens that fail verification are not cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+    private final JwtDecoder delegate;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Map<String, Jwt> verified = new ConcurrentHashMap<>();
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries) {
+        this(delegate, maxEntries, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, int maxEntries, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (token == null) {
+            return delegate.decode(null);
+        }
+
+        String key = hash(token);
+        Instant now = clock.instant();
+        Jwt cached = verified.get(key);
+        if (cached != null) {
+            if (now.isBefore(cached.getExpiresAt())) {
+                return cached;
+            }
+            verified.remove(key, cached);
+        }
+
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && now.isBefore(jwt.getExpiresAt())) {
+            evictIfFull(now);
+            verified.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    int size() {
+        return verified.size();
+    }
+
+    private void evictIfFull(Instant now) {
+        if (verified.size() < maxEntries) {
+            return;
+        }
+
+        verified.values().removeIf(jwt -> !now.isBefore(jwt.getExpiresAt()));
+        while (verified.size() >= maxEntries) {
+            // The token closest to expiry has the least left to save
+            verified.entrySet().stream()
+                    .min(Comparator.comparing(entry -> entry.getValue().getExpiresAt()))
+                    .ifPresent(soonest -> verified.remove(soonest.getKey(), soonest.getValue()));
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Signing keys of the token issuer, kept in memory and in a file. A new process starts from the file when an earlier
+ * one in the same sandbox left it behind, so only the very first start fetches the keys. After that they are
+ * refreshed in the background, and right away when a token names a key that is not known yet (a key rotation), at
+ * most once per {@code minRefreshInterval}.
+ */
+public class PersistentJwkSource implements JWKSource<SecurityContext>, AutoCloseable {
+    private final Callable<String> fetcher;
+    private final Path file;
+    private final long minRefreshNanos;
+    private final LongSupplier nanoClock;
+    private final ScheduledExecutorService refresher;
+
+    private volatile JWKSet keys;
+    private volatile long refreshedAt;
+
+    public PersistentJwkSource(Callable<String> fetcher, Path file, Duration refreshInterval, Duration minRefreshInterval) {
+        this(fetcher, file, minRefreshInterval, System::nanoTime);
+        refresher.scheduleWithFixedDelay(this::refreshQuietly,
+                refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    PersistentJwkSource(Callable<String> fetcher, Path file, Duration minRefreshInterval, LongSupplier nanoClock) {
+        this.fetcher = fetcher;
+        this.file = file;
+        this.minRefreshNanos = minRefreshInterval.toNanos();
+        this.nanoClock = nanoClock;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.keys = readFile();
+        // Lets the first unknown key trigger a refresh straight away
+        this.refreshedAt = nanoClock.getAsLong() - minRefreshNanos;
+    }
+
+    /**
+     * Reads the key set from a JWKS endpoint, e.g. Cognito's {@code <issuer>/.well-known/jwks.json}, without going
+     * through OIDC discovery first.
+     */
+    public static Callable<String> fromUri(URI uri, Duration timeout) {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(timeout).GET().build();
+        return () -> {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("Key set request to " + uri + " returned " + response.statusCode());
+            }
+            return response.body();
+        };
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+        JWKSet current = keys;
+        List<JWK> selected = current != null ? selector.select(current) : List.of();
+        if (selected.isEmpty()) {
+            selected = selector.select(refreshIfStale());
+        }
+        return selected;
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private synchronized JWKSet refreshIfStale() throws KeySourceException {
+        if (keys != null && nanoClock.getAsLong() - refreshedAt < minRefreshNanos) {
+            return keys;
+        }
+        return refresh();
+    }
+
+    private synchronized JWKSet refresh() throws KeySourceException {
+        try {
+            String json = fetcher.call();
+            JWKSet fetched = JWKSet.parse(json);
+            keys = fetched;
+            refreshedAt = nanoClock.getAsLong();
+            writeFile(json);
+            return fetched;
+        } catch (Exception e) {
+            // Back off like after a successful refresh, so a failing endpoint is not hit for every token
+            refreshedAt = nanoClock.getAsLong();
+            if (keys != null) {
+                return keys;
+            }
+            throw new KeySourceException("Could not load the token signing keys", e);
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (KeySourceException e) {
+            System.err.println(e.getMessage() + ": " + e.getCause());
+        }
+    }
+
+    private JWKSet readFile() {
+        try {
+            return Files.exists(file) ? JWKSet.parse(Files.readString(file, StandardCharsets.UTF_8)) : null;
+        } catch (IOException | ParseException e) {
+            System.err.println("Ignoring unreadable key file " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeFile(String json) {
+        try {
+            Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), "jwks", ".tmp");
+            Files.writeString(temporary, json, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not write key file " + file + ": " + e.getMessage());
+        }
+    }
+}
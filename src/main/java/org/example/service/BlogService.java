@@ -1,17 +1,43 @@
 package org.example.service;
 
+import org.example.dto.BatchPreSignedUrlResponse;
 import org.example.dto.BlogPostResponse;
+import org.example.dto.BulkActionResponse;
+import org.example.dto.PageResponse;
+import org.example.dto.PreSignedUrlResponse;
+import org.example.dto.UploadJobResponse;
+import org.example.dto.UserStatsResponse;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface BlogService {
-    List<BlogPostResponse> findAllBlogPost();
+    PageResponse<BlogPostResponse> findAllBlogPost(int pageSize, String cursor);
 
-    List<BlogPostResponse> findAllBlogPostByUser(String userEmail);
+    PageResponse<BlogPostResponse> findAllBlogPostByUser(String userEmail, int pageSize, String cursor);
+
+    CompletableFuture<String> streamAllBlogPostByUser(String userEmail, int pageSize, String cursor, Consumer<BlogPostResponse> consumer);
 
     void deleteBlogPost(String photoId, String userEmail);
 
     void moveToOrRestoreFromRecycleBin(String photoId, String userEmail, boolean isMoveToRecycleBin);
 
-    List<BlogPostResponse> findAllRecycleBlogPost(String userEmail);
+    PageResponse<BlogPostResponse> findAllRecycleBlogPost(String userEmail, int pageSize, String cursor);
+
+    CompletableFuture<String> streamAllRecycleBlogPost(String userEmail, int pageSize, String cursor, Consumer<BlogPostResponse> consumer);
+
+    BulkActionResponse moveToOrRestoreFromRecycleBin(List<String> photoIds, String userEmail, boolean isMoveToRecycleBin);
+
+    BulkActionResponse deleteBlogPosts(List<String> photoIds, String userEmail);
+
+    BulkActionResponse emptyRecycleBin(String userEmail);
+
+    UploadJobResponse findUploadJob(String jobId, String userEmail);
+
+    UserStatsResponse findUserStats(String userEmail);
+
+    PreSignedUrlResponse generatePreSignedUrl(String objectKey, String userEmail);
+
+    BatchPreSignedUrlResponse generatePreSignedUrls(List<String> objectKeys, String userEmail);
 }
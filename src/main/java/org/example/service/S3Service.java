@@ -1,16 +1,35 @@
 package org.example.service;
 
-import org.example.dto.BlogPostResponse;
+import org.example.dto.BatchUploadResponse;
 import org.example.dto.ImageUploadRequest;
 import org.example.dto.PreSignedUrlResponse;
+import org.example.dto.UploadJobResponse;
+import org.example.dto.UploadSessionRequest;
+import org.example.dto.UploadSessionResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 public interface S3Service {
-    BlogPostResponse uploadImage(ImageUploadRequest imageUploadRequest, String userEmail, String fullName);
+    UploadJobResponse uploadImage(ImageUploadRequest imageUploadRequest, String userEmail, String fullName);
+
+    UploadSessionResponse createUploadSession(UploadSessionRequest uploadSessionRequest, String userEmail, String fullName);
+
+    BatchUploadResponse createUploadSessions(List<UploadSessionRequest> uploadSessionRequests, String userEmail, String fullName);
+
+    UploadSessionResponse resumeUploadSession(String jobId, String contentType, String userEmail, String fullName);
 
-    PreSignedUrlResponse generatePreSignedUrl(String objectKey, String userEmail);
+    UploadJobResponse completeUploadSession(String jobId, String userEmail);
+
+    void abortUploadSession(String jobId, String userEmail);
+
+    PreSignedUrlResponse generatePreSignedUrl(String objectKey);
 
     void moveObject(String sourceKey, String destinationKey);
 
     void deleteObject(String objectKey);
 
+    Set<String> deleteObjects(Collection<String> objectKeys);
+
 }
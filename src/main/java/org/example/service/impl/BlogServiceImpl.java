@@ -1,64 +1,392 @@
 package org.example.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.dto.BatchPreSignedUrlResponse;
 import org.example.dto.BlogPostResponse;
+import org.example.dto.BulkActionResponse;
+import org.example.dto.BulkItemResponse;
+import org.example.dto.PageResponse;
+import org.example.dto.PreSignedUrlItemResponse;
+import org.example.dto.PreSignedUrlResponse;
+import org.example.dto.UploadJobResponse;
+import org.example.dto.UserStatsResponse;
 import org.example.exception.CustomBadRequestException;
+import org.example.exception.CustomNotFoundException;
+import org.example.mapper.BlogPostMapper;
+import org.example.model.BlogPost;
+import org.example.model.UploadJob;
+import org.example.model.UploadJobStatus;
+import org.example.model.UserStats;
 import org.example.repository.BlogRepository;
+import org.example.repository.BlogStreamRepository;
+import org.example.repository.BulkUpdateResult;
+import org.example.repository.UploadJobRepository;
+import org.example.repository.UserStatsRepository;
 import org.example.service.BlogService;
 import org.example.service.S3Service;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 @Service
 @RequiredArgsConstructor
 public class BlogServiceImpl implements BlogService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String SUCCEEDED = "SUCCEEDED";
+    private static final String FAILED = "FAILED";
+
     private final BlogRepository blogRepository;
+    private final BlogStreamRepository blogStreamRepository;
     private final S3Service s3Service;
+    private final UploadJobRepository uploadJobRepository;
+    private final UserStatsRepository userStatsRepository;
+    private final BlogPostMapper blogPostMapper;
     private final String recycleBin = "recycle-bin/";
 
-    public List<BlogPostResponse> findAllBlogPost() {
-        return blogRepository.findAll();
+    public PageResponse<BlogPostResponse> findAllBlogPost(int pageSize, String cursor) {
+        return blogRepository.findAll(checkPageSize(pageSize), cursor);
+    }
+
+    public PageResponse<BlogPostResponse> findAllBlogPostByUser(String userEmail, int pageSize, String cursor) {
+        return blogRepository.findAllByUserEmail(userEmail, checkPageSize(pageSize), cursor);
     }
 
-    public List<BlogPostResponse> findAllBlogPostByUser(String userEmail) {
-        return blogRepository.findAllByUserEmail(userEmail);
+    public CompletableFuture<String> streamAllBlogPostByUser(String userEmail, int pageSize, String cursor, Consumer<BlogPostResponse> consumer) {
+        return blogStreamRepository.streamAllByUserEmail(userEmail, checkPageSize(pageSize), cursor, consumer);
     }
 
     public void deleteBlogPost(String photoId, String userEmail) {
-        String objectKey = recycleBin + photoId;
-        s3Service.deleteObject(objectKey);
-        boolean isDeleted = blogRepository.deleteBlogPost(photoId, userEmail);
-        if (!isDeleted) {
-            throw new CustomBadRequestException("Blog post doest not exits");
-        }
+        // The delete returns the removed item, so its objects are only deleted once the post is gone
+        BlogPost blogPost = blogRepository.deleteBlogPost(photoId, userEmail)
+                .orElseThrow(() -> new CustomBadRequestException("Blog post does not exist"));
+        objectKeys(blogPost).forEach(s3Service::deleteObject);
+    }
+
+    public PageResponse<BlogPostResponse> findAllRecycleBlogPost(String userEmail, int pageSize, String cursor) {
+        return blogRepository.findAllRecycledByUser(userEmail, checkPageSize(pageSize), cursor);
     }
 
-    public List<BlogPostResponse> findAllRecycleBlogPost(String userEmail) {
-        return blogRepository.findAllByUserAndDeleteStatus(userEmail, 1);
+    public CompletableFuture<String> streamAllRecycleBlogPost(String userEmail, int pageSize, String cursor, Consumer<BlogPostResponse> consumer) {
+        return blogStreamRepository.streamAllRecycledByUser(userEmail, checkPageSize(pageSize), cursor, consumer);
     }
 
     public void moveToOrRestoreFromRecycleBin(String photoId, String userEmail, boolean isMoveToRecycleBin) {
+        // Source to destination of every copy made, so whichever side is obsolete can be deleted afterwards
+        Map<String, String> copiedKeys = new LinkedHashMap<>();
+        boolean updated = false;
         try {
-            String imageUrl;
+            BlogPost blogPost = blogRepository.findByPhotoIdAndOwner(photoId, userEmail)
+                    .orElseThrow(() -> new CustomBadRequestException("Blog post does not exist"));
+            int deleteStatus = isMoveToRecycleBin ? 1 : 0;
+            if (blogPost.getDeleteStatus() == deleteStatus) {
+                throw new CustomBadRequestException(isMoveToRecycleBin ? "Blog post is already in the recycle bin" : "Blog post is not in the recycle bin");
+            }
             if (isMoveToRecycleBin) {
                 System.out.println("Move to recycle bin");
-                // Move to recycle bin
-                String destinationKey = recycleBin + photoId;
-                s3Service.moveObject(photoId, destinationKey);
-                s3Service.deleteObject(photoId);
-                blogRepository.updateDeleteStatusAndImageKey(photoId, userEmail, 1, destinationKey);
+                // Copy the image and its renditions to recycle bin
+                copyImage(blogPost, key -> recycleBin + key, copiedKeys);
             } else {
                 System.out.println("Move from recycle bin");
-                // Restore from recycle bin
-                String sourceKey = recycleBin + photoId;
-                s3Service.moveObject(sourceKey, photoId);
-                s3Service.deleteObject(sourceKey);
-                blogRepository.updateDeleteStatusAndImageKey(photoId, userEmail, 0, photoId);
+                // Copy the image and its renditions back from recycle bin
+                copyImage(blogPost, key -> key.startsWith(recycleBin) ? key.substring(recycleBin.length()) : key, copiedKeys);
+            }
+            // Fails if the post was deleted or moved by a concurrent request in the meantime
+            updated = blogRepository.updateDeleteStatusAndImageKey(photoId, userEmail, deleteStatus, blogPost.getImageKey(), blogPost.getRenditions());
+            if (!updated) {
+                throw new CustomBadRequestException("Blog post was modified concurrently");
             }
+        } catch (CustomBadRequestException e) {
+            // The post still points at the sources, so only the copies are obsolete
+            s3Service.deleteObjects(copiedKeys.values());
+            throw e;
         } catch (Exception e) {
             System.out.println(e.getMessage());
+            if (!updated) {
+                // Same as above; the specific reason of an SDK failure is not for the client
+                s3Service.deleteObjects(copiedKeys.values());
+            }
             throw new CustomBadRequestException(isMoveToRecycleBin ? "Failed to move to recycle bin" : "Failed to restore from recycle bin");
         }
+        // Objects that fail to delete are only left over, the post already points at its new keys
+        s3Service.deleteObjects(copiedKeys.keySet());
+    }
+
+    public BulkActionResponse moveToOrRestoreFromRecycleBin(List<String> photoIds, String userEmail, boolean isMoveToRecycleBin) {
+        int deleteStatus = isMoveToRecycleBin ? 1 : 0;
+        UnaryOperator<String> destination = isMoveToRecycleBin
+                ? key -> recycleBin + key
+                : key -> key.startsWith(recycleBin) ? key.substring(recycleBin.length()) : key;
+
+        List<String> ids = distinct(photoIds);
+        Map<String, String> failures = new HashMap<>();
+        Map<String, BlogPost> posts = findPosts(ids, userEmail, failures);
+        List<BlogPost> copied = new ArrayList<>();
+        Map<String, Map<String, String>> copiedKeys = new HashMap<>();
+        List<String> obsoleteKeys = new ArrayList<>();
+
+        // S3 has no batch copy, so the objects are copied one by one and the sources are deleted in bulk afterwards
+        for (BlogPost blogPost : posts.values()) {
+            if (blogPost.getDeleteStatus() == deleteStatus) {
+                failures.put(blogPost.getPk(), isMoveToRecycleBin ? "Blog post is already in the recycle bin" : "Blog post is not in the recycle bin");
+                continue;
+            }
+            Map<String, String> keys = new LinkedHashMap<>();
+            try {
+                copyImage(blogPost, destination, keys);
+                copied.add(blogPost);
+                copiedKeys.put(blogPost.getPk(), keys);
+            } catch (CustomBadRequestException e) {
+                failures.put(blogPost.getPk(), isMoveToRecycleBin ? "Failed to move to recycle bin" : "Failed to restore from recycle bin");
+                obsoleteKeys.addAll(keys.values());
+            }
+        }
+
+        BulkUpdateResult result = blogRepository.updateDeleteStatusAndImageKeys(userEmail, deleteStatus, copied);
+        for (BlogPost blogPost : copied) {
+            Map<String, String> keys = copiedKeys.get(blogPost.getPk());
+            if (result.updated().contains(blogPost.getPk())) {
+                obsoleteKeys.addAll(keys.keySet());
+            } else if (result.rejected().contains(blogPost.getPk())) {
+                // Deleted or moved by a concurrent request, drop the copies instead
+                failures.put(blogPost.getPk(), "Blog post was modified concurrently");
+                obsoleteKeys.addAll(keys.values());
+            } else {
+                failures.put(blogPost.getPk(), isMoveToRecycleBin ? "Failed to move to recycle bin" : "Failed to restore from recycle bin");
+                if (result.failed().contains(blogPost.getPk())) {
+                    obsoleteKeys.addAll(keys.values());
+                }
+                // Otherwise the post may point at either side, so both are kept
+            }
+        }
+        // Objects that fail to delete are only left over, the posts already point at their new keys
+        s3Service.deleteObjects(obsoleteKeys);
+
+        return bulkActionResponse(ids, failures);
+    }
+
+    public BulkActionResponse deleteBlogPosts(List<String> photoIds, String userEmail) {
+        List<String> ids = distinct(photoIds);
+        Map<String, String> failures = new HashMap<>();
+        Map<String, BlogPost> posts = findPosts(ids, userEmail, failures);
+        deletePosts(posts.values(), userEmail, failures);
+        return bulkActionResponse(ids, failures);
+    }
+
+    public BulkActionResponse emptyRecycleBin(String userEmail) {
+        List<String> ids = new ArrayList<>();
+        Map<String, String> failures = new HashMap<>();
+        String cursor = null;
+        do {
+            PageResponse<BlogPost> page = blogRepository.findRecycledPostsByUser(userEmail, MAX_PAGE_SIZE, cursor);
+            page.items().forEach(blogPost -> ids.add(blogPost.getPk()));
+            deletePosts(page.items(), userEmail, failures);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return bulkActionResponse(ids, failures);
+    }
+
+    public UploadJobResponse findUploadJob(String jobId, String userEmail) {
+        UploadJob uploadJob = uploadJobRepository.findByJobIdAndOwner(jobId, userEmail)
+                .orElseThrow(() -> new CustomNotFoundException("Upload job does not exist"));
+
+        BlogPostResponse blogPost = null;
+        if (UploadJobStatus.COMPLETED.name().equals(uploadJob.getStatus())) {
+            // The job id is the key of the photo it produced
+            blogPost = blogRepository.findByPhotoIdAndOwner(jobId, userEmail)
+                    .map(blogPostMapper::toBlogPostResponse)
+                    .orElse(null);
+        }
+
+        return UploadJobResponse.builder()
+                .jobId(uploadJob.getPk())
+                .status(uploadJob.getStatus())
+                .message(uploadJob.getMessage())
+                .blogPost(blogPost)
+                .build();
+    }
+
+    public UserStatsResponse findUserStats(String userEmail) {
+        // Users without any stream activity yet have no stats item
+        UserStats stats = userStatsRepository.findByOwner(userEmail)
+                .orElseGet(() -> UserStats.empty(userEmail));
+
+        return UserStatsResponse.builder()
+                .photoCount(stats.getPhotoCount())
+                .recycleCount(stats.getRecycleCount())
+                .bytesStored(stats.getBytesStored())
+                .latest(stats.getLatest() == null ? List.of() : stats.getLatest().stream()
+                        .map(blogPostMapper::toBlogPostResponse)
+                        .toList())
+                .updatedAt(stats.getUpdatedAt())
+                .build();
+    }
+
+    public PreSignedUrlResponse generatePreSignedUrl(String objectKey, String userEmail) {
+        if (!ownedObjectKeys(List.of(objectKey), userEmail).contains(objectKey)) {
+            throw new CustomNotFoundException("Image does not exist");
+        }
+        return s3Service.generatePreSignedUrl(objectKey);
+    }
+
+    /**
+     * Presigns the objects of the user's posts with one batch read of the posts.
+     */
+    public BatchPreSignedUrlResponse generatePreSignedUrls(List<String> objectKeys, String userEmail) {
+        List<String> keys = objectKeys.stream().filter(Objects::nonNull).distinct().toList();
+        if (keys.isEmpty()) {
+            throw new CustomBadRequestException("At least one object key is required");
+        }
+
+        Set<String> ownedKeys = ownedObjectKeys(keys, userEmail);
+
+        List<PreSignedUrlItemResponse> items = new ArrayList<>();
+        int failed = 0;
+        for (String key : keys) {
+            PreSignedUrlItemResponse.PreSignedUrlItemResponseBuilder item = PreSignedUrlItemResponse.builder().objectKey(key);
+            if (!ownedKeys.contains(key)) {
+                failed++;
+                items.add(item.status(FAILED).message("Image does not exist").build());
+                continue;
+            }
+            try {
+                PreSignedUrlResponse preSignedUrl = s3Service.generatePreSignedUrl(key);
+                item.status(SUCCEEDED).url(preSignedUrl.url()).expiresAt(preSignedUrl.expiresAt());
+            } catch (RuntimeException e) {
+                System.err.println(e.getMessage());
+                failed++;
+                item.status(FAILED).message("Failed to generate url");
+            }
+            items.add(item.build());
+        }
+
+        return BatchPreSignedUrlResponse.builder()
+                .succeeded(items.size() - failed)
+                .failed(failed)
+                .items(items)
+                .build();
+    }
+
+    private int checkPageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new CustomBadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+
+    /**
+     * Copies the image and its renditions to their destination keys and points the post at them. Every copy made is
+     * recorded in {@code copiedKeys}, source to destination, also when a later copy fails.
+     */
+    private void copyImage(BlogPost blogPost, UnaryOperator<String> destination, Map<String, String> copiedKeys) {
+        Map<String, String> movedKeys = new HashMap<>();
+        for (String sourceKey : objectKeys(blogPost)) {
+            String destinationKey = destination.apply(sourceKey);
+            if (!destinationKey.equals(sourceKey)) {
+                s3Service.moveObject(sourceKey, destinationKey);
+                copiedKeys.put(sourceKey, destinationKey);
+            }
+            movedKeys.put(sourceKey, destinationKey);
+        }
+
+        blogPost.setImageKey(movedKeys.get(blogPost.getImageKey()));
+        if (blogPost.getRenditions() != null) {
+            blogPost.getRenditions().values().forEach(rendition -> rendition.setKey(movedKeys.get(rendition.getKey())));
+        }
+    }
+
+    /**
+     * Deletes the objects of the posts in bulk, then the posts whose objects are all gone. A post whose objects could
+     * not be deleted is kept, so deleting it again can be retried.
+     */
+    private void deletePosts(Collection<BlogPost> blogPosts, String userEmail, Map<String, String> failures) {
+        Set<String> failedKeys = s3Service.deleteObjects(blogPosts.stream().flatMap(blogPost -> objectKeys(blogPost).stream()).toList());
+        List<String> deletable = new ArrayList<>();
+        for (BlogPost blogPost : blogPosts) {
+            if (objectKeys(blogPost).stream().anyMatch(failedKeys::contains)) {
+                failures.put(blogPost.getPk(), "Failed to delete image");
+            } else {
+                deletable.add(blogPost.getPk());
+            }
+        }
+
+        Set<String> deleted = blogRepository.deleteBlogPosts(userEmail, deletable);
+        deletable.stream()
+                .filter(photoId -> !deleted.contains(photoId))
+                .forEach(photoId -> failures.put(photoId, "Failed to delete blog post"));
+    }
+
+    private Map<String, BlogPost> findPosts(List<String> photoIds, String userEmail, Map<String, String> failures) {
+        Map<String, BlogPost> posts = new LinkedHashMap<>();
+        blogRepository.findByPhotoIdsAndOwner(photoIds, userEmail).forEach(blogPost -> posts.put(blogPost.getPk(), blogPost));
+        photoIds.stream()
+                .filter(photoId -> !posts.containsKey(photoId))
+                .forEach(photoId -> failures.put(photoId, "Blog post does not exist"));
+        return posts;
+    }
+
+    /**
+     * The object keys of the user's posts that any of the given keys can belong to. A key is only presigned while it
+     * is the image or a rendition of a post the user owns, wherever the post currently is.
+     */
+    private Set<String> ownedObjectKeys(Collection<String> keys, String userEmail) {
+        Set<String> photoIds = new LinkedHashSet<>();
+        keys.forEach(key -> photoIds.addAll(candidatePhotoIds(key)));
+        Set<String> ownedKeys = new HashSet<>();
+        blogRepository.findByPhotoIdsAndOwner(photoIds, userEmail).forEach(blogPost -> ownedKeys.addAll(objectKeys(blogPost)));
+        return ownedKeys;
+    }
+
+    /**
+     * The photo ids an object key can belong to: keys are the photo id itself or a rendition of it, either of them
+     * possibly in the recycle bin.
+     */
+    private List<String> candidatePhotoIds(String objectKey) {
+        String key = objectKey.startsWith(recycleBin) ? objectKey.substring(recycleBin.length()) : objectKey;
+        int renditionSuffix = key.lastIndexOf('_');
+        return renditionSuffix > 0 ? List.of(key, key.substring(0, renditionSuffix)) : List.of(key);
+    }
+
+    private List<String> distinct(List<String> photoIds) {
+        List<String> ids = photoIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            throw new CustomBadRequestException("At least one photo id is required");
+        }
+        return ids;
+    }
+
+    private BulkActionResponse bulkActionResponse(List<String> photoIds, Map<String, String> failures) {
+        List<BulkItemResponse> items = photoIds.stream()
+                .map(photoId -> BulkItemResponse.builder()
+                        .photoId(photoId)
+                        .status(failures.containsKey(photoId) ? FAILED : SUCCEEDED)
+                        .message(failures.get(photoId))
+                        .build())
+                .toList();
+        return BulkActionResponse.builder()
+                .succeeded(items.size() - failures.size())
+                .failed(failures.size())
+                .items(items)
+                .build();
+    }
+
+    private Set<String> objectKeys(BlogPost blogPost) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(blogPost.getImageKey());
+        if (blogPost.getRenditions() != null) {
+            blogPost.getRenditions().values().forEach(rendition -> keys.add(rendition.getKey()));
+        }
+        return keys;
     }
 }
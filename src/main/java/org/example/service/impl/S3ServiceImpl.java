@@ -1,98 +1,308 @@
 package org.example.service.impl;
 
-import com.google.gson.Gson;
 import lombok.RequiredArgsConstructor;
-import org.example.dto.BlogPostResponse;
+import org.example.dto.BatchUploadItemResponse;
+import org.example.dto.BatchUploadResponse;
 import org.example.dto.ImageUploadRequest;
 import org.example.dto.PreSignedUrlResponse;
+import org.example.dto.UploadJobResponse;
+import org.example.dto.UploadPartUrlResponse;
+import org.example.dto.UploadSessionRequest;
+import org.example.dto.UploadSessionResponse;
 import org.example.exception.CustomBadRequestException;
+import org.example.exception.CustomNotFoundException;
+import org.example.image.ImageFormat;
+import org.example.image.ImageInfo;
+import org.example.image.ImageProbe;
+import org.example.model.UploadJob;
+import org.example.model.UploadJobStatus;
+import org.example.repository.UploadJobRepository;
 import org.example.service.S3Service;
+import org.example.util.Batches;
+import org.example.util.DecodedImageContext;
+import org.example.util.TtlCache;
+import org.example.util.UploadMetadata;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.lambda.LambdaClient;
-import software.amazon.awssdk.services.lambda.model.InvokeRequest;
-import software.amazon.awssdk.services.lambda.model.InvokeResponse;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
 import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListPartsRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.Part;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
 import java.net.URL;
-import java.net.URLConnection;
 import java.time.Duration;
-import java.util.Base64;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class S3ServiceImpl implements S3Service {
+    private static final long UPLOAD_PART_SIZE = 8 * 1024 * 1024;
+    private static final long MAX_UPLOAD_SIZE = 100 * 1024 * 1024;
+    private static final Duration UPLOAD_URL_EXPIRATION = Duration.ofHours(1);
+    private static final int MAX_DELETE_OBJECTS = 1000;
+    private static final Set<String> ALLOWED_CONTENT_TYPES = Arrays.stream(ImageFormat.values())
+            .map(ImageFormat::mimeType)
+            .collect(Collectors.toSet());
+
     private final S3Client s3Client;
-    private final LambdaClient lambdaClient;
     private final S3Presigner s3Presigner;
+    private final UploadJobRepository uploadJobRepository;
+    private final ExecutorService uploadExecutor;
+    private final TtlCache<String, PreSignedUrlResponse> preSignedUrlCache;
+    private final AwsCredentialsProvider credentialsProvider;
+    @Value("${app.presigned-url.signature-duration}")
+    private Duration preSignedUrlExpiration;
+    @Value("${app.presigned-url.min-remaining-validity}")
+    private Duration minRemainingValidity;
     @Value("${aws.s3.bucket.staging}")
     private String stagingBucket;
     @Value("${aws.s3.bucket.primary}")
     private String primaryBucket;
-    @Value("${aws.lambda.function.image-processing-lambda}")
-    private String imageProcessingLambda;
 
-    public BlogPostResponse uploadImage(ImageUploadRequest request, String userEmail, String fullName) {
+    public UploadJobResponse uploadImage(ImageUploadRequest request, String userEmail, String fullName) {
+        return stageImage(DecodedImageContext.take(request.imageBase64()), userEmail, fullName);
+    }
+
+    public BatchUploadResponse createUploadSessions(List<UploadSessionRequest> requests, String userEmail, String fullName) {
+        List<BatchUploadItemResponse> items = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        Map<Integer, Future<UploadSessionResponse>> sessions = new LinkedHashMap<>();
+
+        // The images go straight to S3 and each staged object starts its own processing, so only the sessions are
+        // created here, side by side
+        for (int index = 0; index < requests.size(); index++) {
+            UploadSessionRequest request = requests.get(index);
+            if (request == null) {
+                items.set(index, failedItem(index, "Image is required"));
+                continue;
+            }
+            sessions.put(index, uploadExecutor.submit(() -> createUploadSession(request, userEmail, fullName)));
+        }
+
+        sessions.forEach((index, session) -> {
+            try {
+                items.set(index, BatchUploadItemResponse.builder()
+                        .index(index)
+                        .session(session.get())
+                        .status(UploadJobStatus.PENDING.name())
+                        .build());
+            } catch (ExecutionException e) {
+                items.set(index, failedItem(index, e.getCause() instanceof CustomBadRequestException
+                        ? e.getCause().getMessage()
+                        : "Failed to create upload session"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                items.set(index, failedItem(index, "Failed to create upload session"));
+            }
+        });
+
+        int failed = (int) items.stream().filter(item -> item.session() == null).count();
+        return BatchUploadResponse.builder()
+                .accepted(items.size() - failed)
+                .failed(failed)
+                .items(items)
+                .build();
+    }
+
+    private UploadJobResponse stageImage(byte[] imageBytes, String userEmail, String fullName) {
         try {
-            byte[] imageBytes = Base64.getDecoder().decode(request.imageBase64());
-            String mimeType = detectMimeType(imageBytes);
-            validateImageType(mimeType);
+            ImageInfo imageInfo = probeImage(imageBytes);
 
             String objectKey = String.valueOf(UUID.randomUUID());
 
+            // The job must exist before the object does, since creating the object starts the processing
+            UploadJob uploadJob = createUploadJob(objectKey, userEmail, null, imageBytes.length);
+
             s3Client.putObject(
                     PutObjectRequest.builder()
                             .bucket(stagingBucket)
                             .key(objectKey)
-                            .contentType(mimeType)
+                            .contentType(imageInfo.format().mimeType())
+                            .metadata(uploadMetadata(userEmail, fullName))
                             .build(),
                     RequestBody.fromBytes(imageBytes)
             );
 
-            Map<String, String> lambdaEvent = Map.of(
-                    "objectKey", objectKey,
-                    "bucketName", stagingBucket,
-                    "email", userEmail,
-                    "fullName", fullName
-            );
-
-            return invokeLambda(lambdaEvent);
+            return UploadJobResponse.builder()
+                    .jobId(uploadJob.getPk())
+                    .status(uploadJob.getStatus())
+                    .build();
+        } catch (CustomBadRequestException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println(e.getMessage());
             throw new CustomBadRequestException("Image upload failed");
         }
     }
 
-    public PreSignedUrlResponse generatePreSignedUrl(String objectKey, String userEmail) {
-        Duration expiration = Duration.ofHours(3);
+    public UploadSessionResponse createUploadSession(UploadSessionRequest request, String userEmail, String fullName) {
+        if (request.contentType() == null || !ALLOWED_CONTENT_TYPES.contains(request.contentType())) {
+            throw new CustomBadRequestException("Invalid file type. Only JPEG, PNG, GIF and BMP images are allowed.");
+        }
+        if (request.contentLength() <= 0 || request.contentLength() > MAX_UPLOAD_SIZE) {
+            throw new CustomBadRequestException("Image size must be between 1 byte and " + MAX_UPLOAD_SIZE / (1024 * 1024) + "MB");
+        }
+
+        String objectKey = String.valueOf(UUID.randomUUID());
+        String uploadId = null;
+        try {
+            if (request.contentLength() > UPLOAD_PART_SIZE) {
+                uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(stagingBucket)
+                        .key(objectKey)
+                        .contentType(request.contentType())
+                        .metadata(uploadMetadata(userEmail, fullName))
+                        .build()).uploadId();
+            }
+
+            UploadJob uploadJob = createUploadJob(objectKey, userEmail, uploadId, request.contentLength());
+            return presignUploadSession(uploadJob, request.contentType(), userEmail, fullName, List.of());
+        } catch (S3Exception e) {
+            System.err.println(e.getMessage());
+            throw new CustomBadRequestException("Failed to create upload session");
+        }
+    }
+
+    public UploadSessionResponse resumeUploadSession(String jobId, String contentType, String userEmail, String fullName) {
+        UploadJob uploadJob = findPendingUploadJob(jobId, userEmail);
+        try {
+            List<Integer> completedParts = uploadJob.getUploadId() != null
+                    ? listParts(uploadJob).stream().map(Part::partNumber).toList()
+                    : List.of();
+            return presignUploadSession(uploadJob, contentType, userEmail, fullName, completedParts);
+        } catch (S3Exception e) {
+            System.err.println(e.getMessage());
+            throw new CustomBadRequestException("Upload session can no longer be resumed");
+        }
+    }
+
+    public UploadJobResponse completeUploadSession(String jobId, String userEmail) {
+        UploadJob uploadJob = findPendingUploadJob(jobId, userEmail);
+        if (uploadJob.getUploadId() == null) {
+            throw new CustomBadRequestException("Single part uploads complete on their own");
+        }
+
+        try {
+            List<Part> parts = listParts(uploadJob);
+            long uploadedSize = parts.stream().mapToLong(Part::size).sum();
+            if (uploadedSize != uploadJob.getContentLength()) {
+                throw new CustomBadRequestException("Uploaded " + uploadedSize + " of " + uploadJob.getContentLength() + " bytes");
+            }
+
+            List<CompletedPart> completedParts = parts.stream()
+                    .map(part -> CompletedPart.builder().partNumber(part.partNumber()).eTag(part.eTag()).build())
+                    .toList();
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(stagingBucket)
+                    .key(uploadJob.getPk())
+                    .uploadId(uploadJob.getUploadId())
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+        } catch (S3Exception e) {
+            System.err.println(e.getMessage());
+            throw new CustomBadRequestException("Failed to complete upload");
+        }
+
+        return UploadJobResponse.builder()
+                .jobId(uploadJob.getPk())
+                .status(uploadJob.getStatus())
+                .build();
+    }
+
+    public void abortUploadSession(String jobId, String userEmail) {
+        UploadJob uploadJob = findPendingUploadJob(jobId, userEmail);
+        try {
+            if (uploadJob.getUploadId() != null) {
+                s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(stagingBucket)
+                        .key(uploadJob.getPk())
+                        .uploadId(uploadJob.getUploadId())
+                        .build());
+            }
+        } catch (S3Exception e) {
+            System.err.println(e.getMessage());
+            throw new CustomBadRequestException("Failed to abort upload");
+        }
 
+        uploadJob.setStatus(UploadJobStatus.FAILED.name());
+        uploadJob.setMessage("Upload aborted");
+        uploadJob.setUpdatedAt(LocalDateTime.now().toString());
+        uploadJobRepository.save(uploadJob);
+    }
+
+    /**
+     * Signs a GET URL for the object, without checking who owns it. Cached URLs are handed out until less than the
+     * minimum remaining validity is left; with temporary credentials that can be well before the cache entry expires.
+     */
+    public PreSignedUrlResponse generatePreSignedUrl(String objectKey) {
+        PreSignedUrlResponse preSignedUrl = preSignedUrlCache.get(objectKey, this::presignGetObject);
+        if (Instant.parse(preSignedUrl.expiresAt()).isBefore(Instant.now().plus(minRemainingValidity))) {
+            preSignedUrlCache.invalidate(objectKey);
+            preSignedUrl = preSignedUrlCache.get(objectKey, this::presignGetObject);
+        }
+        return preSignedUrl;
+    }
+
+    private PreSignedUrlResponse presignGetObject(String objectKey) {
+        // Signed with exactly these credentials, so the URL is known to stop working when they expire
+        AwsCredentials credentials = credentialsProvider.resolveCredentials();
         GetObjectPresignRequest objectRequest = GetObjectPresignRequest.builder()
-                .signatureDuration(expiration)
+                .signatureDuration(preSignedUrlExpiration)
                 .getObjectRequest(GetObjectRequest.builder()
                         .bucket(primaryBucket)
                         .key(objectKey)
+                        .overrideConfiguration(o -> o.credentialsProvider(StaticCredentialsProvider.create(credentials)))
                         .build())
                 .build();
 
         PresignedGetObjectRequest temporaryAccessUrl = s3Presigner.presignGetObject(objectRequest);
         URL url = temporaryAccessUrl.url();
+        Instant expiresAt = credentials.expirationTime()
+                .filter(expiration -> expiration.isBefore(temporaryAccessUrl.expiration()))
+                .orElse(temporaryAccessUrl.expiration());
         return PreSignedUrlResponse.builder()
                 .url(url.toString())
+                .expiresAt(expiresAt.toString())
                 .build();
     }
 
@@ -124,38 +334,158 @@ public class S3ServiceImpl implements S3Service {
         }
     }
 
-    private BlogPostResponse invokeLambda(Map<String, String> lambdaEvent) {
+    /**
+     * Deletes the objects with DeleteObjects, 1000 keys per request, and returns the keys that could not be deleted.
+     */
+    public Set<String> deleteObjects(Collection<String> objectKeys) {
+        Set<String> failedKeys = new HashSet<>();
+        for (List<String> batch : Batches.partition(List.copyOf(new LinkedHashSet<>(objectKeys)), MAX_DELETE_OBJECTS)) {
+            try {
+                DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(primaryBucket)
+                        .delete(Delete.builder()
+                                // Only report the keys that failed
+                                .quiet(true)
+                                .objects(batch.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                                .build())
+                        .build());
+                response.errors().forEach(error -> {
+                    System.err.println("Failed to delete " + error.key() + ": " + error.message());
+                    failedKeys.add(error.key());
+                });
+            } catch (S3Exception e) {
+                System.err.println(e.getMessage());
+                failedKeys.addAll(batch);
+            }
+        }
+        return failedKeys;
+    }
 
-        String eventJson = new Gson().toJson(lambdaEvent);
+    private UploadSessionResponse presignUploadSession(UploadJob uploadJob, String contentType, String userEmail, String fullName, List<Integer> completedParts) {
+        String objectKey = uploadJob.getPk();
+        String expiresAt = Instant.now().plus(UPLOAD_URL_EXPIRATION).toString();
 
-        InvokeRequest invokeRequest = InvokeRequest.builder()
-                .functionName(imageProcessingLambda)
-                .payload(SdkBytes.fromUtf8String(eventJson))
-                .build();
+        if (uploadJob.getUploadId() == null) {
+            if (contentType == null || !ALLOWED_CONTENT_TYPES.contains(contentType)) {
+                throw new CustomBadRequestException("Invalid file type. Only JPEG, PNG, GIF and BMP images are allowed.");
+            }
 
-        InvokeResponse invokeResult = lambdaClient.invoke(invokeRequest);
+            // Content type, length and owner metadata are signed, so the client cannot change them
+            PresignedPutObjectRequest presignedRequest = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                    .signatureDuration(UPLOAD_URL_EXPIRATION)
+                    .putObjectRequest(PutObjectRequest.builder()
+                            .bucket(stagingBucket)
+                            .key(objectKey)
+                            .contentType(contentType)
+                            .contentLength(uploadJob.getContentLength())
+                            .metadata(uploadMetadata(userEmail, fullName))
+                            .build())
+                    .build());
 
-        String responsePayload = invokeResult.payload().asUtf8String();
+            Map<String, String> headers = new HashMap<>();
+            presignedRequest.signedHeaders().forEach((name, values) -> {
+                if (!name.equalsIgnoreCase("host")) {
+                    headers.put(name, String.join(",", values));
+                }
+            });
 
-        if (invokeResult.functionError() != null && !invokeResult.functionError().isEmpty()) {
-            throw new CustomBadRequestException();
+            return UploadSessionResponse.builder()
+                    .jobId(objectKey)
+                    .url(presignedRequest.url().toString())
+                    .headers(headers)
+                    .partSize(uploadJob.getContentLength())
+                    .parts(List.of())
+                    .completedParts(completedParts)
+                    .expiresAt(expiresAt)
+                    .build();
         }
 
-        return new Gson().fromJson(responsePayload, BlogPostResponse.class);
+        int partCount = (int) ((uploadJob.getContentLength() + UPLOAD_PART_SIZE - 1) / UPLOAD_PART_SIZE);
+        List<UploadPartUrlResponse> parts = new ArrayList<>();
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            if (completedParts.contains(partNumber)) {
+                continue;
+            }
+            int number = partNumber;
+            URL url = s3Presigner.presignUploadPart(UploadPartPresignRequest.builder()
+                    .signatureDuration(UPLOAD_URL_EXPIRATION)
+                    .uploadPartRequest(UploadPartRequest.builder()
+                            .bucket(stagingBucket)
+                            .key(objectKey)
+                            .uploadId(uploadJob.getUploadId())
+                            .partNumber(number)
+                            .build())
+                    .build()).url();
+            parts.add(UploadPartUrlResponse.builder().partNumber(number).url(url.toString()).build());
+        }
+
+        return UploadSessionResponse.builder()
+                .jobId(objectKey)
+                .uploadId(uploadJob.getUploadId())
+                .partSize(UPLOAD_PART_SIZE)
+                .parts(parts)
+                .completedParts(completedParts)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private BatchUploadItemResponse failedItem(int index, String message) {
+        return BatchUploadItemResponse.builder()
+                .index(index)
+                .status(UploadJobStatus.FAILED.name())
+                .message(message)
+                .build();
     }
 
+    private List<Part> listParts(UploadJob uploadJob) {
+        return s3Client.listPartsPaginator(ListPartsRequest.builder()
+                        .bucket(stagingBucket)
+                        .key(uploadJob.getPk())
+                        .uploadId(uploadJob.getUploadId())
+                        .build())
+                .parts()
+                .stream()
+                .toList();
+    }
 
-    private String detectMimeType(byte[] imageBytes) {
-        try (InputStream inputStream = new ByteArrayInputStream(imageBytes)) {
-            return URLConnection.guessContentTypeFromStream(inputStream);
-        } catch (IOException e) {
-            throw new CustomBadRequestException("Unable to detect MIME type of the imageBase64.");
+    private UploadJob findPendingUploadJob(String jobId, String userEmail) {
+        UploadJob uploadJob = uploadJobRepository.findByJobIdAndOwner(jobId, userEmail)
+                .orElseThrow(() -> new CustomNotFoundException("Upload job does not exist"));
+        if (!UploadJobStatus.PENDING.name().equals(uploadJob.getStatus())) {
+            throw new CustomBadRequestException("Upload has already finished");
         }
+        return uploadJob;
     }
 
-    private void validateImageType(String mimeType) {
-        if (!mimeType.startsWith("image/")) {
-            throw new CustomBadRequestException("Invalid file type. Only images are allowed.");
+    private UploadJob createUploadJob(String jobId, String userEmail, String uploadId, long contentLength) {
+        String now = LocalDateTime.now().toString();
+        UploadJob uploadJob = UploadJob.builder()
+                .pk(jobId)
+                .sk(UploadJob.sortKey(userEmail))
+                .type(UploadJob.TYPE)
+                .status(UploadJobStatus.PENDING.name())
+                .uploadId(uploadId)
+                .contentLength(contentLength)
+                .createdAt(now)
+                .updatedAt(now)
+                .expiresAt(Instant.now().getEpochSecond() + UploadJob.RETENTION_SECONDS)
+                .build();
+        uploadJobRepository.save(uploadJob);
+        return uploadJob;
+    }
+
+    private Map<String, String> uploadMetadata(String userEmail, String fullName) {
+        return Map.of(
+                UploadMetadata.EMAIL, userEmail,
+                UploadMetadata.FULL_NAME, UploadMetadata.encode(fullName)
+        );
+    }
+
+    private ImageInfo probeImage(byte[] imageBytes) {
+        try {
+            return ImageProbe.probe(imageBytes);
+        } catch (IllegalArgumentException e) {
+            throw new CustomBadRequestException("Invalid file type. Only JPEG, PNG, GIF and BMP images are allowed.");
         }
     }
 
@@ -0,0 +1,129 @@
+package org.example.stats;
+
+import org.example.model.BlogPostListing;
+import org.example.model.UserStats;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class DynamoDbUserStatsStore implements UserStatsStore {
+    private static final String OWNER_INDEX = "OwnerDateIndex";
+    private static final String EVENT_PREFIX = "stream-event#";
+    private static final String EVENT_SORT_KEY = "stream-event";
+    /**
+     * Stream records are kept for 24 hours, so a marker only has to outlive any possible replay of its record.
+     */
+    private static final Duration EVENT_RETENTION = Duration.ofDays(2);
+    private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
+    private static final String TRANSACTION_CONFLICT = "TransactionConflict";
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+
+    public DynamoDbUserStatsStore(DynamoDbClient dynamoDbClient, String tableName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+    }
+
+    @Override
+    public Optional<UserStats> find(String owner) {
+        GetItemResponse response = dynamoDbClient.getItem(r -> r
+                .tableName(tableName)
+                .key(key(owner))
+                .consistentRead(true));
+        return response.hasItem() ? Optional.of(UserStats.TABLE_SCHEMA.mapToItem(response.item())) : Optional.empty();
+    }
+
+    @Override
+    public SaveResult save(UserStats stats, Long expectedVersion, Collection<String> eventIds) {
+        UserStats versioned = stats.toBuilder().version(expectedVersion == null ? 1 : expectedVersion + 1).build();
+        List<String> events = new ArrayList<>(eventIds);
+        List<TransactWriteItem> items = new ArrayList<>();
+
+        Put.Builder statsPut = Put.builder()
+                .tableName(tableName)
+                .item(UserStats.TABLE_SCHEMA.itemToMap(versioned, true));
+        if (expectedVersion == null) {
+            statsPut.conditionExpression("attribute_not_exists(pk)");
+        } else {
+            statsPut.conditionExpression("#version = :version")
+                    .expressionAttributeNames(Map.of("#version", "version"))
+                    .expressionAttributeValues(Map.of(":version", AttributeValue.fromN(String.valueOf(expectedVersion))));
+        }
+        items.add(TransactWriteItem.builder().put(statsPut.build()).build());
+
+        String expiresAt = String.valueOf(Instant.now().plus(EVENT_RETENTION).getEpochSecond());
+        for (String eventId : events) {
+            items.add(TransactWriteItem.builder().put(p -> p
+                    .tableName(tableName)
+                    .item(Map.of(
+                            "pk", AttributeValue.fromS(EVENT_PREFIX + eventId),
+                            "sk", AttributeValue.fromS(EVENT_SORT_KEY),
+                            "expiresAt", AttributeValue.fromN(expiresAt)))
+                    .conditionExpression("attribute_not_exists(pk)")).build());
+        }
+
+        try {
+            dynamoDbClient.transactWriteItems(r -> r.transactItems(items));
+            return new SaveResult(true, Set.of());
+        } catch (TransactionCanceledException e) {
+            List<CancellationReason> reasons = e.cancellationReasons();
+            boolean retryable = reasons.stream()
+                    .anyMatch(reason -> CONDITIONAL_CHECK_FAILED.equals(reason.code()) || TRANSACTION_CONFLICT.equals(reason.code()));
+            if (!retryable) {
+                throw e;
+            }
+            // Reasons are listed in the order of the transaction items, the stats item first
+            Set<String> duplicates = new LinkedHashSet<>();
+            for (int i = 1; i < reasons.size(); i++) {
+                if (CONDITIONAL_CHECK_FAILED.equals(reasons.get(i).code())) {
+                    duplicates.add(events.get(i - 1));
+                }
+            }
+            return new SaveResult(false, duplicates);
+        }
+    }
+
+    @Override
+    public List<BlogPostListing> findLatestPosts(String owner, int limit) {
+        Map<String, String> names = BlogPostListing.ATTRIBUTES.stream()
+                .collect(Collectors.toMap(name -> "#" + name, name -> name, (a, b) -> a, HashMap::new));
+        String projection = String.join(", ", names.keySet());
+        names.put("#owner", "owner");
+
+        return dynamoDbClient.query(r -> r
+                        .tableName(tableName)
+                        .indexName(OWNER_INDEX)
+                        .keyConditionExpression("#owner = :owner")
+                        .projectionExpression(projection)
+                        .expressionAttributeNames(names)
+                        .expressionAttributeValues(Map.of(":owner", AttributeValue.fromS(owner)))
+                        .scanIndexForward(false)
+                        .limit(limit))
+                .items().stream()
+                .map(BlogPostListing.TABLE_SCHEMA::mapToItem)
+                .toList();
+    }
+
+    private static Map<String, AttributeValue> key(String owner) {
+        return Map.of(
+                "pk", AttributeValue.fromS(owner),
+                "sk", AttributeValue.fromS(UserStats.SORT_KEY));
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.stats;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+/**
+ * One stream record touching a blog post item: the item before and after the write, either of which is {@code null}
+ * when the item was created or removed.
+ */
+public record PhotoChange(String eventId, String sequenceNumber, String owner, String photoId,
+                          Map<String, AttributeValue> oldImage, Map<String, AttributeValue> newImage) {
+
+    /**
+     * Only blog post items count; users, upload jobs, the stats items themselves and everything else without an
+     * image key and upload date are skipped.
+     */
+    public static boolean isPhoto(Map<String, AttributeValue> image) {
+        return image != null && image.containsKey("imageKey") && image.containsKey("uploadDate");
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.stats;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts item images from Lambda stream events into SDK attribute values, so they can be read with the same table
+ * schemas as items fetched from the table.
+ */
+public final class StreamImages {
+    private StreamImages() {
+    }
+
+    public static Map<String, AttributeValue> toAttributeValues(
+            Map<String, com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue> image) {
+        if (image == null) {
+            return null;
+        }
+        Map<String, AttributeValue> values = new LinkedHashMap<>();
+        image.forEach((name, value) -> values.put(name, toAttributeValue(value)));
+        return values;
+    }
+
+    private static AttributeValue toAttributeValue(com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue value) {
+        if (value.getS() != null) {
+            return AttributeValue.fromS(value.getS());
+        }
+        if (value.getN() != null) {
+            return AttributeValue.fromN(value.getN());
+        }
+        if (value.getB() != null) {
+            return AttributeValue.fromB(SdkBytes.fromByteBuffer(value.getB()));
+        }
+        if (value.getSS() != null) {
+            return AttributeValue.fromSs(value.getSS());
+        }
+        if (value.getNS() != null) {
+            return AttributeValue.fromNs(value.getNS());
+        }
+        if (value.getBS() != null) {
+            return AttributeValue.fromBs(value.getBS().stream().map(SdkBytes::fromByteBuffer).toList());
+        }
+        if (value.getM() != null) {
+            return AttributeValue.fromM(toAttributeValues(value.getM()));
+        }
+        if (value.getL() != null) {
+            List<AttributeValue> list = value.getL().stream().map(StreamImages::toAttributeValue).toList();
+            return AttributeValue.fromL(list);
+        }
+        if (value.getBOOL() != null) {
+            return AttributeValue.fromBool(value.getBOOL());
+        }
+        return AttributeValue.fromNul(true);
+    }
+}
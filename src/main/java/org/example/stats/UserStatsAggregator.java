@@ -0,0 +1,95 @@
+package org.example.stats;
+
+import org.example.model.BlogPostListing;
+import org.example.model.UserStats;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds stream changes into a user's stats. Counters move by the difference between the old and the new image, so
+ * applying a change is independent of what was applied before; replays are filtered out before they get here.
+ */
+public class UserStatsAggregator {
+    private static final Comparator<BlogPostListing> NEWEST_FIRST = Comparator
+            .comparing(BlogPostListing::getUploadDate, Comparator.reverseOrder())
+            .thenComparing(BlogPostListing::getPk);
+
+    private final int latestPosts;
+
+    public UserStatsAggregator(int latestPosts) {
+        this.latestPosts = latestPosts;
+    }
+
+    public UserStats apply(UserStats stats, List<PhotoChange> changes) {
+        long photoCount = stats.getPhotoCount();
+        long recycleCount = stats.getRecycleCount();
+        long bytesStored = stats.getBytesStored();
+        List<BlogPostListing> latest = new ArrayList<>(stats.getLatest() != null ? stats.getLatest() : List.of());
+
+        for (PhotoChange change : changes) {
+            Contribution before = Contribution.of(change.oldImage());
+            Contribution after = Contribution.of(change.newImage());
+            photoCount += after.photos - before.photos;
+            recycleCount += after.recycled - before.recycled;
+            bytesStored += after.bytes - before.bytes;
+
+            latest.removeIf(listing -> change.photoId().equals(listing.getPk()));
+            if (after.photos > 0) {
+                latest.add(BlogPostListing.TABLE_SCHEMA.mapToItem(change.newImage()));
+            }
+        }
+
+        latest.sort(NEWEST_FIRST);
+        return stats.toBuilder()
+                .photoCount(Math.max(photoCount, 0))
+                .recycleCount(Math.max(recycleCount, 0))
+                .bytesStored(Math.max(bytesStored, 0))
+                .latest(List.copyOf(latest.subList(0, Math.min(latest.size(), latestPosts))))
+                .updatedAt(LocalDateTime.now().toString())
+                .build();
+    }
+
+    /**
+     * Whether posts dropped out of the latest list while older live posts could take their place, in which case the
+     * list has to be reloaded from the table.
+     */
+    public boolean isLatestIncomplete(UserStats stats) {
+        return stats.getLatest().size() < Math.min(stats.getPhotoCount(), latestPosts);
+    }
+
+    public int getLatestPosts() {
+        return latestPosts;
+    }
+
+    private record Contribution(long photos, long recycled, long bytes) {
+        private static final Contribution NONE = new Contribution(0, 0, 0);
+
+        static Contribution of(Map<String, AttributeValue> image) {
+            if (!PhotoChange.isPhoto(image)) {
+                return NONE;
+            }
+            AttributeValue deleteStatus = image.get("deleteStatus");
+            boolean recycled = deleteStatus != null && "1".equals(deleteStatus.n());
+            return new Contribution(recycled ? 0 : 1, recycled ? 1 : 0, size(image.get("renditions")));
+        }
+
+        private static long size(AttributeValue renditions) {
+            if (renditions == null || !renditions.hasM()) {
+                return 0;
+            }
+            long size = 0;
+            for (AttributeValue rendition : renditions.m().values()) {
+                AttributeValue renditionSize = rendition.hasM() ? rendition.m().get("size") : null;
+                if (renditionSize != null && renditionSize.n() != null) {
+                    size += Long.parseLong(renditionSize.n());
+                }
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.stats;
+
+import org.example.model.BlogPostListing;
+import org.example.model.UserStats;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public interface UserStatsStore {
+    Optional<UserStats> find(String owner);
+
+    /**
+     * Writes the stats together with a marker per stream event, all or nothing. Nothing is written if the stored
+     * version no longer matches {@code expectedVersion} ({@code null} for stats that do not exist yet) or if any of
+     * the events was applied before; the latter are returned so the caller can retry without them.
+     */
+    SaveResult save(UserStats stats, Long expectedVersion, Collection<String> eventIds);
+
+    List<BlogPostListing> findLatestPosts(String owner, int limit);
+
+    record SaveResult(boolean saved, Set<String> duplicateEventIds) {
+    }
+}
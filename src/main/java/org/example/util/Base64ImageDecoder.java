@@ -0,0 +1,86 @@
+package org.example.util;
+
+import java.util.Arrays;
+
+/**
+ * Decodes standard Base64 (RFC 4648 alphabet, optional trailing padding, no line breaks) in a single pass over the
+ * string, validating the alphabet while it decodes. The decoded size is known from the length and padding alone,
+ * so size limits can be checked before anything is allocated.
+ */
+public final class Base64ImageDecoder {
+    private static final byte[] DECODE_TABLE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE_TABLE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE_TABLE[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private Base64ImageDecoder() {
+    }
+
+    /**
+     * @throws IllegalArgumentException when the length or padding cannot be valid Base64
+     */
+    public static int decodedLength(String base64) {
+        int length = base64.length();
+        int padding = padding(base64);
+        if (padding > 0 && length % 4 != 0) {
+            throw new IllegalArgumentException("Invalid Base64 padding");
+        }
+
+        int dataLength = length - padding;
+        if (dataLength % 4 == 1) {
+            throw new IllegalArgumentException("Invalid Base64 length");
+        }
+        return (int) ((long) dataLength * 3 / 4);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the string is not valid Base64
+     */
+    public static byte[] decode(String base64) {
+        byte[] bytes = new byte[decodedLength(base64)];
+        int dataLength = base64.length() - padding(base64);
+        int fullQuads = dataLength - dataLength % 4;
+
+        int out = 0;
+        int i = 0;
+        while (i < fullQuads) {
+            int bits = sextet(base64, i++) << 18 | sextet(base64, i++) << 12 | sextet(base64, i++) << 6 | sextet(base64, i++);
+            bytes[out++] = (byte) (bits >> 16);
+            bytes[out++] = (byte) (bits >> 8);
+            bytes[out++] = (byte) bits;
+        }
+
+        int remaining = dataLength - fullQuads;
+        if (remaining == 2) {
+            int bits = sextet(base64, i++) << 18 | sextet(base64, i) << 12;
+            bytes[out] = (byte) (bits >> 16);
+        } else if (remaining == 3) {
+            int bits = sextet(base64, i++) << 18 | sextet(base64, i++) << 12 | sextet(base64, i) << 6;
+            bytes[out++] = (byte) (bits >> 16);
+            bytes[out] = (byte) (bits >> 8);
+        }
+        return bytes;
+    }
+
+    private static int padding(String base64) {
+        int length = base64.length();
+        if (length > 0 && base64.charAt(length - 1) == '=') {
+            return length > 1 && base64.charAt(length - 2) == '=' ? 2 : 1;
+        }
+        return 0;
+    }
+
+    private static int sextet(String base64, int index) {
+        char c = base64.charAt(index);
+        int value = c < 128 ? DECODE_TABLE[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Illegal Base64 character at index " + index);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Batches {
+    private Batches() {
+    }
+
+    /**
+     * Splits the items into consecutive batches of at most {@code size} items, for APIs that cap the batch size.
+     */
+    public static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += size) {
+            batches.add(items.subList(from, Math.min(from + size, items.size())));
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.util;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Hands images decoded during validation to the service handling the same request, so the Base64 payload is only
+ * decoded once. Entries are keyed by the identity of the Base64 string and live in the current request's attributes;
+ * outside a request nothing is stored and callers decode themselves.
+ */
+public final class DecodedImageContext {
+    private static final String ATTRIBUTE = DecodedImageContext.class.getName();
+
+    private DecodedImageContext() {
+    }
+
+    public static void put(String base64, byte[] bytes) {
+        Map<String, byte[]> images = images(true);
+        if (images != null) {
+            images.put(base64, bytes);
+        }
+    }
+
+    /**
+     * Returns the bytes decoded for this exact string earlier in the request, or decodes it now.
+     */
+    public static byte[] take(String base64) {
+        Map<String, byte[]> images = images(false);
+        byte[] bytes = images != null ? images.remove(base64) : null;
+        return bytes != null ? bytes : Base64ImageDecoder.decode(base64);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, byte[]> images(boolean create) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+
+        Map<String, byte[]> images = (Map<String, byte[]>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (images == null && create) {
+            images = new IdentityHashMap<>();
+            attributes.setAttribute(ATTRIBUTE, images, RequestAttributes.SCOPE_REQUEST);
+        }
+        return images;
+    }
+}
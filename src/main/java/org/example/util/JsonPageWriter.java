@@ -0,0 +1,85 @@
+package org.example.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Writes a listing as {@code {"items": [...], "nextCursor": "..."}} while it is still being read, so the first items
+ * go out before the last page has arrived and only the items in flight are held in memory.
+ * <p>
+ * The response is committed once the first item, or the end of the listing, is available; a listing that fails before
+ * that fails the request as usual. A failure after that cannot change the status any more and leaves the JSON
+ * unterminated, so clients see a 200 with a body that does not parse.
+ * <p>
+ * This only gets the first items out sooner where the response is streamed to the client, such as a Lambda Function URL
+ * in {@code RESPONSE_STREAM} mode or a regular servlet container. Behind the API Gateway proxy integration the whole
+ * body is buffered anyway, which is why the listings only use it when {@code app.listing.stream} is set.
+ */
+public final class JsonPageWriter {
+    private static final Object END = new Object();
+
+    private JsonPageWriter() {
+    }
+
+    public static <T> void write(HttpServletResponse response, ObjectMapper objectMapper,
+                                 Function<Consumer<T>, CompletableFuture<String>> listing) throws IOException {
+        // Items are produced on the SDK's threads and written on the request thread
+        BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+        CompletableFuture<String> nextCursor = listing.apply(queue::add);
+        nextCursor.whenComplete((cursor, error) -> queue.add(END));
+
+        Object item = take(queue);
+        if (item == END) {
+            join(nextCursor);
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator json = objectMapper.createGenerator(response.getOutputStream())) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            json.writeStartObject();
+            json.writeArrayFieldStart("items");
+            while (item != END) {
+                json.writeObject(item);
+                if (queue.isEmpty()) {
+                    // Waiting for the next page, send what is there
+                    json.flush();
+                }
+                item = take(queue);
+            }
+            json.writeEndArray();
+            json.writeStringField("nextCursor", join(nextCursor));
+            json.writeEndObject();
+        }
+    }
+
+    private static Object take(BlockingQueue<Object> queue) {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing the listing", e);
+        }
+    }
+
+    private static String join(CompletableFuture<String> nextCursor) {
+        try {
+            return nextCursor.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
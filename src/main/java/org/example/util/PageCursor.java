@@ -0,0 +1,57 @@
+package org.example.util;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Opaque page cursor carrying a DynamoDB {@code exclusiveStartKey}. All table and index keys are strings, so the key
+ * is written as URL-encoded {@code name=value} pairs in URL-safe Base64.
+ */
+public final class PageCursor {
+
+    private PageCursor() {
+    }
+
+    public static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+
+        StringJoiner joiner = new StringJoiner("&");
+        lastEvaluatedKey.forEach((name, value) -> {
+            if (value.s() == null) {
+                throw new IllegalArgumentException("Only string keys can be encoded in a cursor: " + name);
+            }
+            joiner.add(URLEncoder.encode(name, StandardCharsets.UTF_8) + "=" + URLEncoder.encode(value.s(), StandardCharsets.UTF_8));
+        });
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the cursor was not produced by {@link #encode(Map)}
+     */
+    public static Map<String, AttributeValue> decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        Map<String, AttributeValue> key = new LinkedHashMap<>();
+        for (String pair : decoded.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            key.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                    AttributeValue.builder().s(URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8)).build());
+        }
+        return key;
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.util;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams into a single S3 object while holding at most one part in memory. Small content is sent with one
+ * PutObject on close, larger content as a multipart upload that reuses the same buffer for every part.
+ * Call {@link #abort()} instead of {@link #close()} when writing fails so no partial object is left behind.
+ */
+public class S3UploadOutputStream extends OutputStream {
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024; // S3 minimum for every part except the last
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String key;
+    private final String contentType;
+    private final byte[] buffer;
+    private final List<CompletedPart> completedParts = new ArrayList<>();
+
+    private int position;
+    private long bytesWritten;
+    private String uploadId;
+    private boolean closed;
+
+    public S3UploadOutputStream(S3Client s3Client, String bucket, String key, String contentType) {
+        this(s3Client, bucket, key, contentType, MIN_PART_SIZE);
+    }
+
+    public S3UploadOutputStream(S3Client s3Client, String bucket, String key, String contentType, int partSize) {
+        if (partSize < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("Part size must be at least " + MIN_PART_SIZE + " bytes");
+        }
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.key = key;
+        this.contentType = contentType;
+        this.buffer = new byte[partSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (position == buffer.length) {
+            uploadPart();
+        }
+        buffer[position++] = (byte) b;
+        bytesWritten++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        while (length > 0) {
+            if (position == buffer.length) {
+                uploadPart();
+            }
+            int chunk = Math.min(length, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, chunk);
+            position += chunk;
+            offset += chunk;
+            length -= chunk;
+            bytesWritten += chunk;
+        }
+    }
+
+    /**
+     * Total number of bytes written so far, which is the content length of the uploaded object once closed.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        if (uploadId == null) {
+            s3Client.putObject(PutObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .contentType(contentType)
+                            .contentLength((long) position)
+                            .build(),
+                    bufferBody());
+            return;
+        }
+
+        try {
+            if (position > 0) {
+                uploadPart();
+            }
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+        } catch (RuntimeException e) {
+            abortMultipartUpload();
+            throw e;
+        }
+    }
+
+    /**
+     * Discards everything written so far. Nothing is stored in S3 after an abort.
+     */
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        abortMultipartUpload();
+    }
+
+    private void uploadPart() {
+        if (uploadId == null) {
+            uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .contentType(contentType)
+                    .build()).uploadId();
+        }
+
+        int partNumber = completedParts.size() + 1;
+        String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) position)
+                        .build(),
+                bufferBody()).eTag();
+
+        completedParts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+        position = 0;
+    }
+
+    private RequestBody bufferBody() {
+        int length = position;
+        // The provider is re-invoked on retries, so it must hand out a fresh view of the buffer every time
+        return RequestBody.fromContentProvider(() -> new ByteArrayInputStream(buffer, 0, length), length, contentType);
+    }
+
+    private void abortMultipartUpload() {
+        if (uploadId == null) {
+            return;
+        }
+        s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .build());
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream already closed");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.util;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-process cache whose entries expire a fixed time after they were loaded.
+ * <p>
+ * Loads are single-flight: concurrent callers asking for the same missing key wait for the one load in progress
+ * instead of starting their own. Failed loads are not cached. An entry invalidated while it is loading is handed to
+ * the callers already waiting for it but not kept.
+ */
+public class TtlCache<K, V> {
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TtlCache(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    TtlCache(Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long now = nanoClock.getAsLong();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && !entry.isExpired(now, ttlNanos)) {
+            hits.increment();
+            return join(entry.value);
+        }
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        Entry<V> current = entries.compute(key, (k, existing) ->
+                existing != null && !existing.isExpired(now, ttlNanos) ? existing : new Entry<>(load, now));
+        if (current.value != load) {
+            // Another caller started loading this key in the meantime
+            hits.increment();
+            return join(current.value);
+        }
+
+        misses.increment();
+        evictIfFull(now);
+        try {
+            V value = loader.apply(key);
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            entries.remove(key, current);
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadNanos.add(nanoClock.getAsLong() - now);
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateIf(Predicate<? super K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public Stats stats() {
+        long loads = misses.sum();
+        return new Stats(hits.sum(), loads, loadFailures.sum(), evictions.sum(), entries.size(),
+                loads == 0 ? 0 : loadNanos.sum() / loads / 1_000_000.0);
+    }
+
+    private void evictIfFull(long now) {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+
+        entries.entrySet().removeIf(e -> e.getValue().isExpired(now, ttlNanos) && e.getValue().value.isDone());
+        while (entries.size() > maxEntries) {
+            entries.entrySet().stream()
+                    .min(Comparator.comparingLong(e -> e.getValue().loadedAt))
+                    .ifPresent(oldest -> {
+                        if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                            evictions.increment();
+                        }
+                    });
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> value) {
+        try {
+            return value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Counters since the cache was created. {@code misses} is the number of loads, {@code averageLoadMillis} their
+     * mean duration, failed loads included.
+     */
+    public record Stats(long hits, long misses, long loadFailures, long evictions, int size, double averageLoadMillis) {
+    }
+
+    private record Entry<V>(CompletableFuture<V> value, long loadedAt) {
+        boolean isExpired(long now, long ttlNanos) {
+            return value.isDone() && now - loadedAt >= ttlNanos;
+        }
+    }
+}
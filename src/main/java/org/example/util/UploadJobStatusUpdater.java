@@ -0,0 +1,66 @@
+package org.example.util;
+
+import org.example.model.UploadJob;
+import org.example.model.UploadJobStatus;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Updates the status of upload jobs from the processing Lambdas. A completed job keeps its status, so a late or
+ * duplicate failure cannot overwrite a success.
+ */
+public class UploadJobStatusUpdater {
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+
+    public UploadJobStatusUpdater(DynamoDbClient dynamoDbClient, String tableName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+    }
+
+    public void update(String jobId, String email, UploadJobStatus status, String message) {
+        Map<String, String> names = new HashMap<>();
+        names.put("#status", "status");
+        names.put("#message", "message");
+        names.put("#updatedAt", "updatedAt");
+
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":status", AttributeValue.builder().s(status.name()).build());
+        values.put(":completed", AttributeValue.builder().s(UploadJobStatus.COMPLETED.name()).build());
+        values.put(":updatedAt", AttributeValue.builder().s(LocalDateTime.now().toString()).build());
+
+        String updateExpression = "SET #status = :status, #updatedAt = :updatedAt";
+        if (message != null) {
+            values.put(":message", AttributeValue.builder().s(message).build());
+            updateExpression += ", #message = :message";
+        } else {
+            updateExpression += " REMOVE #message";
+        }
+
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(tableName)
+                    .key(Map.of(
+                            "pk", AttributeValue.builder().s(jobId).build(),
+                            "sk", AttributeValue.builder().s(UploadJob.sortKey(email)).build()))
+                    .updateExpression(updateExpression)
+                    // Uploads that were not started through the job API have no job item to track
+                    .conditionExpression("attribute_exists(pk) AND #status <> :completed")
+                    .expressionAttributeNames(names)
+                    .expressionAttributeValues(values)
+                    .build());
+        } catch (ConditionalCheckFailedException e) {
+            // Nothing to update
+        } catch (DynamoDbException e) {
+            // The job status is informational, a failed update must not fail the processing itself
+            System.err.println("Failed to update upload job " + jobId + ": " + e.getMessage());
+        }
+    }
+}
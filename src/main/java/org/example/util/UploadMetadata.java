@@ -0,0 +1,25 @@
+package org.example.util;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * User metadata attached to staged uploads, so the processing Lambda knows the owner of an object created directly
+ * in the staging bucket. S3 metadata must be US-ASCII, hence the full name is URL-encoded.
+ */
+public final class UploadMetadata {
+    public static final String EMAIL = "email";
+    public static final String FULL_NAME = "fullname";
+
+    private UploadMetadata() {
+    }
+
+    public static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    public static String decode(String value) {
+        return value != null ? URLDecoder.decode(value, StandardCharsets.UTF_8) : null;
+    }
+}
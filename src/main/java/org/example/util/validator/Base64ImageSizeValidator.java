@@ -2,8 +2,8 @@ package org.example.util.validator;
 
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-
-import java.util.Base64;
+import org.example.util.Base64ImageDecoder;
+import org.example.util.DecodedImageContext;
 
 public class Base64ImageSizeValidator implements ConstraintValidator<ImageSize, String> {
     private static final long MAX_SIZE_BYTES = 5 * 1024 * 1024; // 5 MB in bytes
@@ -15,13 +15,23 @@ public class Base64ImageSizeValidator implements ConstraintValidator<ImageSize,
 
     @Override
     public boolean isValid(String base64, ConstraintValidatorContext context) {
-        try {
-            byte[] decodedBytes = Base64.getDecoder().decode(base64);
+        if (base64 == null || base64.isEmpty()) {
+            // Left to @NotBlank
+            return true;
+        }
 
-            return decodedBytes.length <= MAX_SIZE_BYTES;
+        try {
+            // The size follows from the length, so oversized payloads are rejected without decoding them
+            if (Base64ImageDecoder.decodedLength(base64) > MAX_SIZE_BYTES) {
+                return false;
+            }
 
+            DecodedImageContext.put(base64, Base64ImageDecoder.decode(base64));
+            return true;
         } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid Base64 encoded string: " + base64);
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate("Invalid Base64 string.").addConstraintViolation();
+            return false;
         }
     }
 }
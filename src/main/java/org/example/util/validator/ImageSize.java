@@ -3,6 +3,17 @@ package org.example.util.validator;
 import jakarta.validation.Constraint;
 import jakarta.validation.Payload;
 
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Validates a Base64 encoded image: the alphabet, the padding and the decoded size. The decoded bytes are kept for
+ * the rest of the request, see {@link org.example.util.DecodedImageContext}.
+ */
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
 @Constraint(validatedBy = Base64ImageSizeValidator.class)
 public @interface ImageSize {
     String message() default "Base64 image exceeds the size limit of 5MB.";
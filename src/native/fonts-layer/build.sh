@@ -0,0 +1,30 @@
+#!/bin/sh
+# Builds target/fonts-layer.zip, the layer the native event Lambdas need for watermarking: provided.al2023 has no
+# fontconfig and no fonts. The libraries come from the same Amazon Linux 2023 release as the runtime.
+#
+#   src/native/fonts-layer/build.sh
+#
+# The layer unpacks to /opt: lib/ (on the runtime's library path), fonts/ and etc/fonts/fonts.conf.
+set -eu
+
+cd "$(dirname "$0")/../../.."
+OUT=target/fonts-layer
+rm -rf "$OUT" target/fonts-layer.zip
+mkdir -p "$OUT/lib" "$OUT/fonts" "$OUT/etc/fonts"
+cp src/native/fonts-layer/fonts.conf "$OUT/etc/fonts/"
+
+docker run --rm -v "$PWD/$OUT:/layer" public.ecr.aws/amazonlinux/amazonlinux:2023 sh -euc '
+    dnf install -q -y fontconfig dejavu-sans-fonts >/dev/null
+    # fontconfig and what it links against, minus glibc, which the runtime has
+    for lib in $(ldd /usr/lib64/libfontconfig.so.1 | awk "/=> \\// { print \$3 }") /usr/lib64/libfontconfig.so.1; do
+        case $(basename "$lib") in
+            libc.so*|libm.so*|libdl.so*|libpthread.so*|librt.so*|ld-linux*) ;;
+            *) cp -L "$lib" /layer/lib/ ;;
+        esac
+    done
+    cp /usr/share/fonts/dejavu-sans-fonts/DejaVuSans.ttf /usr/share/fonts/dejavu-sans-fonts/DejaVuSans-Bold.ttf /layer/fonts/
+    chown -R '"$(id -u):$(id -g)"' /layer
+'
+
+(cd "$OUT" && zip -qr ../fonts-layer.zip .)
+echo "target/fonts-layer.zip"
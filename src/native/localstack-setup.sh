@@ -0,0 +1,40 @@
+#!/bin/sh
+# Creates the resources the event Lambdas touch in LocalStack and stages a JPEG under the key of the canned image
+# events, so the smoke test runs the image pipeline (and the tracing agent sees AWT) end to end. Idempotent; the
+# smoke test calls it again before every event, because a processed image is removed from the staging bucket.
+#
+#   SETUP=src/native/localstack-setup.sh src/native/smoke-test.sh [--agent]
+set -eu
+
+cd "$(dirname "$0")/../.."
+ENDPOINT=${AWS_ENDPOINT_OVERRIDE:-http://localhost:4566}
+export AWS_REGION=${AWS_REGION:-us-east-1} AWS_DEFAULT_REGION=${AWS_REGION:-us-east-1}
+export AWS_ACCESS_KEY_ID=test AWS_SECRET_ACCESS_KEY=test
+KEY=3f2c8a4e-7d1b-4c55-9a0e-2b6f1d9c8e71
+IMAGE=target/smoke-test.jpg
+
+aws() {
+    command aws --endpoint-url "$ENDPOINT" "$@" >/dev/null
+}
+
+aws s3 mb s3://photo-blog-staging 2>/dev/null || true
+aws s3 mb s3://photo-blog-primary 2>/dev/null || true
+aws dynamodb create-table --table-name photo-blog \
+    --attribute-definitions AttributeName=pk,AttributeType=S AttributeName=sk,AttributeType=S \
+    --key-schema AttributeName=pk,KeyType=HASH AttributeName=sk,KeyType=RANGE \
+    --billing-mode PAY_PER_REQUEST 2>/dev/null || true
+aws sqs create-queue --queue-name tasks
+aws sns create-topic --name notifications
+
+if [ ! -f "$IMAGE" ]; then
+    mkdir -p target
+    printf '%s\n' \
+        'var image = new java.awt.image.BufferedImage(1600, 1200, java.awt.image.BufferedImage.TYPE_3BYTE_BGR);' \
+        'var graphics = image.createGraphics();' \
+        'graphics.setPaint(new java.awt.GradientPaint(0, 0, java.awt.Color.BLUE, 1600, 1200, java.awt.Color.ORANGE));' \
+        'graphics.fillRect(0, 0, 1600, 1200);' \
+        "javax.imageio.ImageIO.write(image, \"jpg\", new java.io.File(\"$IMAGE\"));" \
+        '/exit' | jshell -J-Djava.awt.headless=true -q - >/dev/null
+fi
+aws s3api put-object --bucket photo-blog-staging --key "$KEY" --body "$IMAGE" --content-type image/jpeg \
+    --metadata email=jane.doe@example.com,fullname=Jane+Doe
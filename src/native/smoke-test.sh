@@ -0,0 +1,103 @@
+#!/bin/sh
+# Invokes the native event Lambdas with the canned events in src/test/resources/events, and fails when a handler dies
+# of missing native-image configuration (reflection, resources, JNI) or missing fonts.
+#
+#   mvn -Pnative-events package && src/native/fonts-layer/build.sh && src/native/smoke-test.sh
+#
+# The executable runs in the provided.al2023 base image, through the runtime interface emulator it ships, with the
+# fonts layer under /opt: the same environment as the deployed functions.
+#
+# With --agent, the same events run on the JVM under the native-image tracing agent instead, which merges what it
+# sees into src/main/resources/META-INF/native-image/org.example/photo-blog-app. That needs aws-lambda-rie locally.
+#
+# Calls to AWS go to AWS_ENDPOINT_OVERRIDE (LocalStack's port by default) and may fail, unless SETUP names a script
+# that prepares them (src/native/localstack-setup.sh): then the image events must be processed without an error,
+# which is the only way the agent sees the AWT code.
+set -eu
+
+cd "$(dirname "$0")/../.."
+EVENTS=src/test/resources/events
+CONFIG_DIR=src/main/resources/META-INF/native-image/org.example/photo-blog-app
+PORT=${PORT:-9000}
+SETUP=${SETUP:-}
+
+export AWS_REGION=${AWS_REGION:-us-east-1}
+export AWS_ACCESS_KEY_ID=test AWS_SECRET_ACCESS_KEY=test
+export AWS_ENDPOINT_OVERRIDE=${AWS_ENDPOINT_OVERRIDE:-http://localhost:4566}
+export NOTIFICATION_TOPIC_ARN=arn:aws:sns:$AWS_REGION:000000000000:notifications
+export TASK_QUEUE=https://sqs.$AWS_REGION.amazonaws.com/000000000000/tasks
+export DYNAMODB_TABLE=photo-blog
+export S3_BUCKET_PRIMARY=photo-blog-primary S3_BUCKET_STAGING=photo-blog-staging
+export STEP_FUNCTION_ARN=arn:aws:states:$AWS_REGION:000000000000:stateMachine:image-retry
+
+if [ "${1:-}" = "--agent" ]; then
+    RIE=${RIE:-$(command -v aws-lambda-rie || true)}
+    if [ -z "$RIE" ]; then
+        echo "aws-lambda-rie not found; set RIE or install it from https://github.com/aws/aws-lambda-runtime-interface-emulator" >&2
+        exit 2
+    fi
+    mvn -q -Pnative-events compile dependency:build-classpath -Dmdep.outputFile=target/native-classpath.txt
+    AGENT_CLASSPATH=target/classes:$(cat target/native-classpath.txt)
+else
+    [ -f target/event-lambdas-native.zip ] || { echo "target/event-lambdas-native.zip missing; run mvn -Pnative-events package" >&2; exit 2; }
+    [ -d target/fonts-layer ] || { echo "target/fonts-layer missing; run src/native/fonts-layer/build.sh" >&2; exit 2; }
+    rm -rf target/native
+    mkdir -p target/native
+    (cd target/native && unzip -q ../event-lambdas-native.zip)
+fi
+
+LOG=target/smoke-test.log
+failures=0
+
+invoke() {
+    handler=$1
+    event=$2
+    [ -z "$SETUP" ] || "$SETUP"
+
+    if [ -n "${AGENT_CLASSPATH:-}" ]; then
+        # The JVM gets the handler as its argument, the bootstrap reads it from _HANDLER
+        "$RIE" --runtime-interface-emulator-address "0.0.0.0:$PORT" \
+            java "-agentlib:native-image-agent=config-merge-dir=$CONFIG_DIR" -Djava.awt.headless=true -cp "$AGENT_CLASSPATH" \
+            com.amazonaws.services.lambda.runtime.api.client.AWSLambda "$handler" >"$LOG" 2>&1 &
+        rie=$!
+    else
+        container=$(docker run -d --network host \
+            -v "$PWD/target/native:/var/task:ro" -v "$PWD/target/fonts-layer:/opt:ro" \
+            -e _HANDLER="$handler" -e AWS_REGION -e AWS_ACCESS_KEY_ID -e AWS_SECRET_ACCESS_KEY -e AWS_ENDPOINT_OVERRIDE \
+            -e NOTIFICATION_TOPIC_ARN -e TASK_QUEUE -e DYNAMODB_TABLE -e S3_BUCKET_PRIMARY -e S3_BUCKET_STAGING \
+            -e STEP_FUNCTION_ARN \
+            --entrypoint /usr/local/bin/aws-lambda-rie public.ecr.aws/lambda/provided:al2023 \
+            --runtime-interface-emulator-address "0.0.0.0:$PORT" /var/task/bootstrap)
+    fi
+    sleep 1
+    response=$(curl -s --max-time 60 -d @"$EVENTS/$event" "http://localhost:$PORT/2015-03-31/functions/function/invocations" || true)
+    if [ -n "${AGENT_CLASSPATH:-}" ]; then
+        kill "$rie" 2>/dev/null || true
+        wait "$rie" 2>/dev/null || true
+    else
+        docker logs "$container" >"$LOG" 2>&1 || true
+        docker rm -f "$container" >/dev/null
+    fi
+
+    pattern='ClassNotFound|NoSuchMethod|MissingReflectionRegistration|MissingResourceRegistration|UnsatisfiedLink|NoClassDefFound|ExceptionInInitializer|Fontconfig|"errorType":"Runtime\.'
+    if [ -n "$SETUP" ]; then
+        pattern="$pattern|Error occurred while processing image"
+    fi
+    if printf '%s\n' "$response" | cat - "$LOG" | grep -Eq "$pattern"; then
+        echo "FAIL $handler $event"
+        printf '  %s\n' "$response"
+        sed 's/^/  /' "$LOG"
+        failures=$((failures + 1))
+    else
+        echo "ok   $handler $event"
+        grep -h '^REPORT' "$LOG" | sed 's/^/  /' || true
+    fi
+}
+
+invoke org.example.CognitoEventLambda::handleRequest cognito-post-confirmation.json
+invoke org.example.CognitoEventLambda::handleRequest cognito-post-authentication.json
+invoke org.example.SQSEventLambda::handleRequest sqs-publish-sns.json
+invoke org.example.ImageProcessingLambda::handleRequest s3-object-created.json
+invoke org.example.ImageProcessingLambda::handleRequest image-processing-retry.json
+
+[ "$failures" -eq 0 ] || { echo "$failures invocation(s) failed" >&2; exit 1; }
@@ -0,0 +1,179 @@
+package org.example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.StreamsEventResponse;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.StreamRecord;
+import org.example.model.BlogPostListing;
+import org.example.model.UserStats;
+import org.example.stats.UserStatsStore;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserStatsStreamLambdaTest {
+    private static final String OWNER = "jane@example.com";
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final UserStatsStreamLambda lambda = new UserStatsStreamLambda(store, 2);
+    private int sequence;
+
+    @Test
+    public void appliesInsertsRecyclesRestoresAndDeletes() {
+        Map<String, AttributeValue> first = photo("a", "2024-01-01T10:00", 0, 100);
+        Map<String, AttributeValue> second = photo("b", "2024-01-02T10:00", 0, 50);
+        Map<String, AttributeValue> third = photo("c", "2024-01-03T10:00", 0, 25);
+        Map<String, AttributeValue> secondRecycled = photo("b", "2024-01-02T10:00", 1, 50);
+
+        handle(record(null, first), record(null, second), record(null, third), record(second, secondRecycled));
+
+        UserStats stats = store.find(OWNER).orElseThrow();
+        assertEquals(2, stats.getPhotoCount());
+        assertEquals(1, stats.getRecycleCount());
+        assertEquals(175, stats.getBytesStored());
+        assertEquals(List.of("c", "a"), stats.getLatest().stream().map(BlogPostListing::getPk).toList());
+
+        handle(record(secondRecycled, second), record(third, null));
+
+        stats = store.find(OWNER).orElseThrow();
+        assertEquals(2, stats.getPhotoCount());
+        assertEquals(0, stats.getRecycleCount());
+        assertEquals(150, stats.getBytesStored());
+        assertEquals(List.of("b", "a"), stats.getLatest().stream().map(BlogPostListing::getPk).toList());
+    }
+
+    @Test
+    public void replayedRecordsAreAppliedOnce() {
+        DynamodbEvent.DynamodbStreamRecord insert = record(null, photo("a", "2024-01-01T10:00", 0, 100));
+        DynamodbEvent.DynamodbStreamRecord other = record(null, photo("b", "2024-01-02T10:00", 0, 50));
+
+        handle(insert);
+        UserStats applied = store.find(OWNER).orElseThrow();
+        // Lambda retries the whole batch after a partial failure, including records that already went through
+        StreamsEventResponse response = handle(insert, other);
+
+        assertTrue(response.getBatchItemFailures().isEmpty());
+        UserStats stats = store.find(OWNER).orElseThrow();
+        assertEquals(2, stats.getPhotoCount());
+        assertEquals(150, stats.getBytesStored());
+        assertEquals(applied.getVersion() + 1, stats.getVersion());
+
+        handle(insert, other);
+        assertEquals(stats.getVersion(), store.find(OWNER).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void reloadsLatestPostsWhenOneDropsOut() {
+        Map<String, AttributeValue> first = photo("a", "2024-01-01T10:00", 0, 100);
+        Map<String, AttributeValue> second = photo("b", "2024-01-02T10:00", 0, 50);
+        Map<String, AttributeValue> third = photo("c", "2024-01-03T10:00", 0, 25);
+        handle(record(null, first), record(null, second), record(null, third));
+
+        store.latest = List.of(BlogPostListing.builder().pk("b").sk(OWNER).uploadDate("2024-01-02T10:00").build(),
+                BlogPostListing.builder().pk("a").sk(OWNER).uploadDate("2024-01-01T10:00").build());
+        handle(record(third, null));
+
+        assertEquals(List.of("b", "a"), store.find(OWNER).orElseThrow().getLatest().stream().map(BlogPostListing::getPk).toList());
+    }
+
+    @Test
+    public void ignoresItemsOtherThanPosts() {
+        Map<String, AttributeValue> user = new HashMap<>();
+        user.put("pk", new AttributeValue(OWNER));
+        user.put("sk", new AttributeValue("Jane Doe"));
+        user.put("type", new AttributeValue("user"));
+
+        StreamsEventResponse response = handle(record(null, user));
+
+        assertTrue(response.getBatchItemFailures().isEmpty());
+        assertTrue(store.find(OWNER).isEmpty());
+    }
+
+    private StreamsEventResponse handle(DynamodbEvent.DynamodbStreamRecord... records) {
+        DynamodbEvent event = new DynamodbEvent();
+        event.setRecords(List.of(records));
+        return lambda.handleRequest(event, context());
+    }
+
+    private DynamodbEvent.DynamodbStreamRecord record(Map<String, AttributeValue> oldImage, Map<String, AttributeValue> newImage) {
+        Map<String, AttributeValue> image = newImage != null ? newImage : oldImage;
+        StreamRecord streamRecord = new StreamRecord()
+                .withKeys(Map.of("pk", image.get("pk"), "sk", image.get("sk")))
+                .withOldImage(oldImage)
+                .withNewImage(newImage)
+                .withSequenceNumber(String.valueOf(++sequence));
+
+        DynamodbEvent.DynamodbStreamRecord record = new DynamodbEvent.DynamodbStreamRecord();
+        record.setEventID("event-" + sequence);
+        record.setEventName(oldImage == null ? "INSERT" : newImage == null ? "REMOVE" : "MODIFY");
+        record.setDynamodb(streamRecord);
+        return record;
+    }
+
+    private static Map<String, AttributeValue> photo(String photoId, String uploadDate, int deleteStatus, long size) {
+        Map<String, AttributeValue> rendition = new HashMap<>();
+        rendition.put("key", new AttributeValue(photoId));
+        rendition.put("size", new AttributeValue().withN(String.valueOf(size)));
+
+        Map<String, AttributeValue> image = new HashMap<>();
+        image.put("pk", new AttributeValue(photoId));
+        image.put("sk", new AttributeValue(OWNER));
+        image.put("imageKey", new AttributeValue(photoId));
+        image.put("uploadDate", new AttributeValue(uploadDate));
+        image.put("deleteStatus", new AttributeValue().withN(String.valueOf(deleteStatus)));
+        image.put("renditions", new AttributeValue().withM(Map.of("full", new AttributeValue().withM(rendition))));
+        return image;
+    }
+
+    private static Context context() {
+        LambdaLogger logger = (LambdaLogger) Proxy.newProxyInstance(LambdaLogger.class.getClassLoader(),
+                new Class<?>[]{LambdaLogger.class}, (proxy, method, args) -> null);
+        return (Context) Proxy.newProxyInstance(Context.class.getClassLoader(), new Class<?>[]{Context.class},
+                (proxy, method, args) -> "getLogger".equals(method.getName()) ? logger : null);
+    }
+
+    private static class InMemoryStore implements UserStatsStore {
+        private final Map<String, UserStats> stats = new HashMap<>();
+        private final Set<String> appliedEvents = new HashSet<>();
+        private List<BlogPostListing> latest = new ArrayList<>();
+
+        @Override
+        public Optional<UserStats> find(String owner) {
+            return Optional.ofNullable(stats.get(owner));
+        }
+
+        @Override
+        public SaveResult save(UserStats updated, Long expectedVersion, Collection<String> eventIds) {
+            Set<String> duplicates = new LinkedHashSet<>(eventIds);
+            duplicates.retainAll(appliedEvents);
+            UserStats current = stats.get(updated.getPk());
+            Long version = current == null ? null : current.getVersion();
+            if (!duplicates.isEmpty() || !Objects.equals(version, expectedVersion)) {
+                return new SaveResult(false, duplicates);
+            }
+
+            appliedEvents.addAll(eventIds);
+            stats.put(updated.getPk(), updated.toBuilder().version(version == null ? 1 : version + 1).build());
+            return new SaveResult(true, Set.of());
+        }
+
+        @Override
+        public List<BlogPostListing> findLatestPosts(String owner, int limit) {
+            return latest.subList(0, Math.min(limit, latest.size()));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CognitoTriggerEventCodecTest {
+
+    @Test
+    public void read_postConfirmation_readsUserAttributes() throws IOException {
+        CognitoTriggerEvent event = CognitoTriggerEventCodec.read(resource("events/cognito-post-confirmation.json"));
+
+        assertEquals(CognitoTriggerEvent.POST_CONFIRMATION, event.triggerSource());
+        assertEquals("8a6c2f4e-0b1d-4e7a-9c3f-5d2e1b0a9f87", event.userName());
+        assertEquals("jane.doe@example.com", event.email());
+        assertEquals("Jane Doe", event.name());
+        assertEquals("CONFIRMED", event.userAttributes().get("cognito:user_status"));
+    }
+
+    @Test
+    public void read_postAuthentication_skipsOtherRequestFields() throws IOException {
+        CognitoTriggerEvent event = CognitoTriggerEventCodec.read(resource("events/cognito-post-authentication.json"));
+
+        assertEquals(CognitoTriggerEvent.POST_AUTHENTICATION, event.triggerSource());
+        assertEquals("jane.doe@example.com", event.email());
+    }
+
+    @Test
+    public void read_withoutUserAttributes_hasNoEmail() throws IOException {
+        CognitoTriggerEvent event = CognitoTriggerEventCodec.read(
+                "{\"triggerSource\":\"TokenGeneration_Authentication\",\"request\":{\"userAttributes\":null}}".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(event.email());
+    }
+
+    private static byte[] resource(String name) throws IOException {
+        try (InputStream inputStream = CognitoTriggerEventCodecTest.class.getClassLoader().getResourceAsStream(name)) {
+            return inputStream.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageProcessingEventCodecTest {
+
+    @Test
+    public void read_objectCreatedEvent_takesBucketAndKeyFromDetail() throws IOException {
+        ImageProcessingEvent event = ImageProcessingEventCodec.read(resource("events/s3-object-created.json"));
+
+        assertEquals(new ImageProcessingEvent("photo-blog-staging", "3f2c8a4e-7d1b-4c55-9a0e-2b6f1d9c8e71", null, null, null), event);
+        assertEquals(1, event.attempt());
+    }
+
+    @Test
+    public void read_retryEvent_continuesWithTheNextAttempt() throws IOException {
+        ImageProcessingEvent event = ImageProcessingEventCodec.read(resource("events/image-processing-retry.json"));
+
+        assertEquals("jane.doe@example.com", event.email());
+        assertEquals("Jane Doe", event.fullName());
+        assertEquals(2, event.attempt());
+    }
+
+    @Test
+    public void writeRetry_roundTrips() throws IOException {
+        ImageProcessingEvent event = new ImageProcessingEvent("bucket", "key \"quoted\"", "a@example.com", "Zo\u00eb", null);
+
+        String payload = ImageProcessingEventCodec.writeRetry(event, 2);
+        ImageProcessingEvent retry = ImageProcessingEventCodec.read(new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(payload.contains("\"workflowType\":\"image-processing-retry\""));
+        assertEquals(new ImageProcessingEvent("bucket", "key \"quoted\"", "a@example.com", "Zo\u00eb", 2), retry);
+    }
+
+    @Test
+    public void writeResult_writesThePost() throws IOException {
+        ImageProcessingResult result = new ImageProcessingResult("key", "a@example.com", "Jane Doe", "https://bucket/key",
+                "2025-01-01T12:00", Map.of("thumbnail", new ImageProcessingResult.Rendition("https://bucket/key_thumbnail", 320, 240, 1024)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        ImageProcessingEventCodec.writeResult(result, outputStream);
+
+        assertEquals("{\"pk\":\"key\",\"sk\":\"a@example.com\",\"fullName\":\"Jane Doe\",\"imageUrl\":\"https://bucket/key\","
+                        + "\"uploadDate\":\"2025-01-01T12:00\",\"renditions\":{\"thumbnail\":{\"url\":\"https://bucket/key_thumbnail\","
+                        + "\"width\":320,\"height\":240,\"size\":1024}}}",
+                outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void readFailure_timeout_isNotHandled() throws IOException {
+        String record = new String(resource("events/image-processing-failure.json").readAllBytes(), StandardCharsets.UTF_8);
+
+        ImageProcessingFailure failure = ImageProcessingEventCodec.readFailure(record);
+
+        assertEquals(new ImageProcessingEvent("photo-blog-staging", "3f2c8a4e-7d1b-4c55-9a0e-2b6f1d9c8e71", null, null, null), failure.event());
+        assertNull(failure.errorType());
+        assertTrue(failure.errorMessage().endsWith("Task timed out after 120.00 seconds"));
+        assertFalse(failure.handled());
+    }
+
+    @Test
+    public void readFailure_failureCaughtByTheHandler_isHandled() throws IOException {
+        String record = "{\"requestPayload\":{\"bucketName\":\"bucket\",\"objectKey\":\"key\",\"retryAttempt\":1},"
+                + "\"responsePayload\":{\"errorType\":\"java.lang.RuntimeException\",\"errorMessage\":\"ImageProcessingFailed: Broken JPEG\"}}";
+
+        ImageProcessingFailure failure = ImageProcessingEventCodec.readFailure(record);
+
+        assertEquals("key", failure.event().objectKey());
+        assertEquals("java.lang.RuntimeException", failure.errorType());
+        assertTrue(failure.handled());
+    }
+
+    @Test
+    public void read_notAnObject_fails() {
+        assertThrows(IOException.class, () -> ImageProcessingEventCodec.read(new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static InputStream resource(String name) {
+        return ImageProcessingEventCodecTest.class.getClassLoader().getResourceAsStream(name);
+    }
+}
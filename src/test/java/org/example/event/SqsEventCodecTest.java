@@ -0,0 +1,33 @@
+package org.example.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqsEventCodecTest {
+
+    @Test
+    public void read_readsBodyAndStringAttributes() throws IOException {
+        List<SqsMessage> messages = SqsEventCodec.read(getClass().getClassLoader().getResourceAsStream("events/sqs-publish-sns.json"));
+
+        assertEquals(1, messages.size());
+        SqsMessage message = messages.get(0);
+        assertEquals("059f36b4-87a3-44ab-83d2-661975830a7d", message.messageId());
+        assertEquals("Hi Jane Doe, \nThe image you tried to upload failed.", message.body());
+        assertEquals("publishSNS", message.attribute("workflowType"));
+        assertEquals("jane.doe@example.com", message.attribute("email"));
+        assertEquals("IMAGE UPLOAD FAILED", message.attribute("subject"));
+    }
+
+    @Test
+    public void read_withoutRecords_isEmpty() throws IOException {
+        List<SqsMessage> messages = SqsEventCodec.read(new ByteArrayInputStream("{\"Records\":[]}".getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(messages.isEmpty());
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.image;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageDecoderTest {
+
+    @Test
+    public void subsampling_withinLimit_decodesFullResolution() {
+        assertEquals(1, ImageDecoder.subsampling(new ImageInfo(ImageFormat.JPEG, 4000, 3000, 1), 12_000_000L));
+    }
+
+    @Test
+    public void subsampling_overLimit_picksSmallestFittingFactor() {
+        ImageInfo info = new ImageInfo(ImageFormat.JPEG, 8000, 6000, 1);
+
+        assertEquals(2, ImageDecoder.subsampling(info, 12_000_000L));
+        assertEquals(3, ImageDecoder.subsampling(info, 11_999_999L));
+    }
+
+    @Test
+    public void decode_overLimit_decodesAtReducedResolution() throws IOException {
+        for (ImageFormat format : ImageFormat.values()) {
+            BufferedImage source = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            ImageIO.write(source, format.formatName(), outputStream);
+
+            BufferedImage decoded = ImageDecoder.decode(new ByteArrayInputStream(outputStream.toByteArray()),
+                    new ImageInfo(format, 400, 300, 1), 30_000L);
+
+            assertEquals(200, decoded.getWidth(), format.name());
+            assertEquals(150, decoded.getHeight(), format.name());
+        }
+    }
+}
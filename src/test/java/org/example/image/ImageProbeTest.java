@@ -0,0 +1,92 @@
+package org.example.image;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageProbeTest {
+
+    @Test
+    public void probe_encodedImages_detectsFormatAndDimensions() throws IOException {
+        for (ImageFormat format : ImageFormat.values()) {
+            ImageInfo info = ImageProbe.probe(encode(format, 320, 200));
+
+            assertEquals(format, info.format());
+            assertEquals(320, info.width());
+            assertEquals(200, info.height());
+            assertEquals(1, info.orientation());
+        }
+    }
+
+    @Test
+    public void probe_stream_resetsToStartForDecoder() throws IOException {
+        InputStream inputStream = new BufferedInputStream(new ByteArrayInputStream(encode(ImageFormat.PNG, 64, 48)));
+
+        ImageProbe.probe(inputStream);
+        BufferedImage decoded = ImageIO.read(inputStream);
+
+        assertNotNull(decoded);
+        assertEquals(64, decoded.getWidth());
+    }
+
+    @Test
+    public void probe_jpegWithExif_readsOrientation() throws IOException {
+        byte[] jpeg = encode(ImageFormat.JPEG, 40, 30);
+        byte[] exif = {
+                (byte) 0xFF, (byte) 0xE1, 0x00, 0x22,
+                'E', 'x', 'i', 'f', 0, 0,
+                'M', 'M', 0x00, 0x2A, 0x00, 0x00, 0x00, 0x08,
+                0x00, 0x01,
+                0x01, 0x12, 0x00, 0x03, 0x00, 0x00, 0x00, 0x01, 0x00, 0x06, 0x00, 0x00,
+                0x00, 0x00, 0x00, 0x00
+        };
+        byte[] withExif = new byte[jpeg.length + exif.length];
+        System.arraycopy(jpeg, 0, withExif, 0, 2);
+        System.arraycopy(exif, 0, withExif, 2, exif.length);
+        System.arraycopy(jpeg, 2, withExif, 2 + exif.length, jpeg.length - 2);
+
+        ImageInfo info = ImageProbe.probe(withExif);
+
+        assertEquals(ImageFormat.JPEG, info.format());
+        assertEquals(40, info.width());
+        assertEquals(30, info.height());
+        assertEquals(6, info.orientation());
+    }
+
+    @Test
+    public void probe_webp_isRejected() {
+        byte[] webp = {'R', 'I', 'F', 'F', 0x10, 0x00, 0x00, 0x00, 'W', 'E', 'B', 'P', 'V', 'P', '8', ' '};
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ImageProbe.probe(webp));
+        assertTrue(e.getMessage().contains("WebP"));
+    }
+
+    @Test
+    public void probe_notAnImage_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ImageProbe.probe("%PDF-1.7".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> ImageProbe.probe(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}));
+    }
+
+    @Test
+    public void checkPixelLimit_oversizedDimensions_isRejected() {
+        ImageInfo bomb = new ImageInfo(ImageFormat.PNG, 50_000, 50_000, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> ImageProbe.checkPixelLimit(bomb, ImageProbe.DEFAULT_MAX_PIXELS));
+        assertDoesNotThrow(() -> ImageProbe.checkPixelLimit(new ImageInfo(ImageFormat.PNG, 4000, 3000, 1), ImageProbe.DEFAULT_MAX_PIXELS));
+    }
+
+    private static byte[] encode(ImageFormat format, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertTrue(ImageIO.write(image, format.formatName(), outputStream));
+        return outputStream.toByteArray();
+    }
+}
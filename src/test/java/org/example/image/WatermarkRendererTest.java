@@ -0,0 +1,82 @@
+package org.example.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WatermarkRendererTest {
+    // 1000 / 40 = 25, an odd font size
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 200;
+
+    @Test
+    public void apply_matchesDrawingTheWholeText_directAndCachedPrefix() {
+        WatermarkRenderer renderer = new WatermarkRenderer();
+        LocalDateTime first = LocalDateTime.of(2025, 1, 1, 12, 0, 0);
+        LocalDateTime second = LocalDateTime.of(2025, 1, 1, 12, 0, 7);
+
+        BufferedImage direct = background();
+        renderer.apply(direct, "Jane Doe", first);
+        BufferedImage cached = background();
+        renderer.apply(cached, "Jane Doe", second);
+
+        assertTrue(maxChannelDifference(direct, reference("JANE DOE - 01 Jan 2025 12:00:00")) <= 1);
+        assertTrue(maxChannelDifference(cached, reference("JANE DOE - 01 Jan 2025 12:00:07")) <= 1);
+    }
+
+    @Test
+    public void apply_tinyImage_drawsNothing() {
+        BufferedImage image = new BufferedImage(30, 30, BufferedImage.TYPE_INT_RGB);
+
+        new WatermarkRenderer().apply(image, "Jane Doe", LocalDateTime.of(2025, 1, 1, 12, 0));
+
+        assertEquals(0, maxChannelDifference(image, new BufferedImage(30, 30, BufferedImage.TYPE_INT_RGB)));
+    }
+
+    /**
+     * The watermark as drawn before the renderer existed: the whole text in one pass, at width / 40.
+     */
+    private static BufferedImage reference(String text) {
+        BufferedImage image = background();
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.BOLD, WIDTH / 40));
+        FontMetrics fontMetrics = graphics.getFontMetrics();
+        int x = WIDTH - fontMetrics.stringWidth(text) - 10;
+        int y = HEIGHT - fontMetrics.getHeight() + fontMetrics.getAscent();
+
+        graphics.setColor(new Color(0, 0, 0, 128));
+        graphics.drawString(text, x + 2, y + 2);
+        graphics.setColor(new Color(255, 255, 255, 192));
+        graphics.drawString(text, x, y);
+        graphics.dispose();
+        return image;
+    }
+
+    private static BufferedImage background() {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(30, 90, 160), WIDTH, HEIGHT, new Color(230, 180, 60)));
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        graphics.dispose();
+        return image;
+    }
+
+    private static int maxChannelDifference(BufferedImage actual, BufferedImage expected) {
+        int max = 0;
+        for (int y = 0; y < actual.getHeight(); y++) {
+            for (int x = 0; x < actual.getWidth(); x++) {
+                int a = actual.getRGB(x, y);
+                int e = expected.getRGB(x, y);
+                for (int shift = 0; shift < 24; shift += 8) {
+                    max = Math.max(max, Math.abs((a >> shift & 0xff) - (e >> shift & 0xff)));
+                }
+            }
+        }
+        return max;
+    }
+}
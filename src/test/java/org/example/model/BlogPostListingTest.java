@@ -0,0 +1,54 @@
+package org.example.model;
+
+import org.example.repository.impl.BlogRepositoryImpl;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlogPostListingTest {
+
+    @Test
+    public void mapToItem_indexItem_readsListingAttributes() {
+        Map<String, AttributeValue> item = Map.of(
+                "pk", s("3f2a-photo"),
+                "sk", s("jane@example.com"),
+                "owner", s("jane@example.com"),
+                "fullName", s("Jane Doe"),
+                "imageKey", s("3f2a-photo"),
+                "uploadDate", s("2025-01-01T12:00:00"),
+                "renditions", AttributeValue.builder().m(Map.of("thumb", AttributeValue.builder().m(Map.of(
+                        "key", s("renditions/thumb/3f2a-photo"),
+                        "width", n(320),
+                        "height", n(240),
+                        "size", n(12345))).build())).build());
+
+        BlogPostListing listing = BlogPostListing.TABLE_SCHEMA.mapToItem(item);
+
+        assertEquals("3f2a-photo", listing.getPk());
+        assertEquals("Jane Doe", listing.getFullName());
+        assertEquals("2025-01-01T12:00:00", listing.getUploadDate());
+        Rendition thumb = listing.getRenditions().get("thumb");
+        assertEquals("renditions/thumb/3f2a-photo", thumb.getKey());
+        assertEquals(320, thumb.getWidth());
+        assertEquals(12345L, thumb.getSize());
+    }
+
+    @Test
+    public void attributes_matchBlogPostAttributeNames() {
+        assertEquals(List.of("pk", "sk", "fullName", "imageKey", "uploadDate", "renditions"), BlogPostListing.ATTRIBUTES);
+        // Every projected attribute must exist on the full item
+        assertTrue(BlogRepositoryImpl.TABLE_SCHEMA.attributeNames().containsAll(BlogPostListing.ATTRIBUTES));
+    }
+
+    private static AttributeValue s(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    private static AttributeValue n(long value) {
+        return AttributeValue.builder().n(String.valueOf(value)).build();
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.priming;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimingCredentialsProviderTest {
+    private final AtomicInteger resolved = new AtomicInteger();
+    private final AwsCredentialsProvider provider = new PrimingCredentialsProvider(() -> {
+        resolved.incrementAndGet();
+        return AwsBasicCredentials.create("real", "secret");
+    });
+
+    @AfterEach
+    public void tearDown() {
+        Priming.stop();
+    }
+
+    @Test
+    public void neverResolvesTheRealCredentialsWhilePriming() {
+        Priming.start();
+
+        assertEquals("priming", provider.resolveCredentials().accessKeyId());
+        assertEquals(0, resolved.get());
+    }
+
+    @Test
+    public void resolvesTheRealCredentialsOncePrimingIsOver() {
+        Priming.start();
+        Priming.stop();
+
+        assertEquals("real", provider.resolveCredentials().accessKeyId());
+        assertEquals(1, resolved.get());
+    }
+}
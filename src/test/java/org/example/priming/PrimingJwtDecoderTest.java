@@ -0,0 +1,39 @@
+package org.example.priming;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimingJwtDecoderTest {
+    private final JwtDecoder decoder = new PrimingJwtDecoder(token -> {
+        throw new BadJwtException("Rejected " + token);
+    });
+
+    @AfterEach
+    public void tearDown() {
+        Priming.stop();
+    }
+
+    @Test
+    public void acceptsThePrimingTokenWhilePriming() {
+        String token = Priming.start();
+
+        Jwt jwt = decoder.decode(token);
+
+        assertEquals(Priming.EMAIL, jwt.getClaimAsString("email"));
+        assertThrows(BadJwtException.class, () -> decoder.decode(token + "x"));
+    }
+
+    @Test
+    public void rejectsThePrimingTokenOncePrimingIsOver() {
+        String token = Priming.start();
+        Priming.stop();
+
+        assertThrows(BadJwtException.class, () -> decoder.decode(token));
+        assertThrows(BadJwtException.class, () -> decoder.decode(null));
+    }
+}
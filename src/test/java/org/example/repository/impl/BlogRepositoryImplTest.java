@@ -0,0 +1,104 @@
+package org.example.repository.impl;
+
+import org.example.dto.BlogPostResponse;
+import org.example.dto.PageResponse;
+import org.example.mapper.BlogPostMapper;
+import org.example.model.BlogPost;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlogRepositoryImplTest {
+    private final ExecutorService queryExecutor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdown() {
+        queryExecutor.shutdownNow();
+    }
+
+    @Test
+    public void findAll_pagesThroughAllShardsNewestFirst() {
+        ShardedIndex index = new ShardedIndex();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 53; i++) {
+            String uploadDate = String.format("2025-01-01T12:00:%02d", i);
+            String photoId = "photo-" + i;
+            // A few posts from before sharding sit in the unsharded partition
+            index.add(i % 10 == 0 ? BlogPost.PHOTO_TYPE : BlogPost.typeShard(photoId), photoId, uploadDate);
+            expected.add(0, photoId);
+        }
+        BlogRepositoryImpl repository = new BlogRepositoryImpl(new BlogPostMapper(), null, index, queryExecutor);
+
+        List<String> actual = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            PageResponse<BlogPostResponse> page = repository.findAll(10, cursor);
+            assertTrue(page.items().size() <= 10);
+            page.items().forEach(item -> actual.add(item.getPk()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, actual);
+        assertEquals(6, pages);
+    }
+
+    /**
+     * TypeDateIndex stand-in: one list per shard, newest first, paged like a DynamoDB query.
+     */
+    private static class ShardedIndex implements DynamoDbClient {
+        private final Map<String, List<Map<String, AttributeValue>>> shards = new HashMap<>();
+
+        void add(String shard, String photoId, String uploadDate) {
+            List<Map<String, AttributeValue>> items = shards.computeIfAbsent(shard, key -> new ArrayList<>());
+            items.add(Map.of("pk", s(photoId), "sk", s("jane@example.com"), "type", s(shard), "uploadDate", s(uploadDate)));
+            items.sort(Comparator.comparing((Map<String, AttributeValue> item) -> item.get("uploadDate").s()).reversed());
+        }
+
+        @Override
+        public QueryResponse query(QueryRequest request) {
+            List<Map<String, AttributeValue>> items = shards.getOrDefault(request.expressionAttributeValues().get(":partition").s(), List.of());
+            int from = 0;
+            if (request.hasExclusiveStartKey()) {
+                String startPk = request.exclusiveStartKey().get("pk").s();
+                while (!items.get(from).get("pk").s().equals(startPk)) {
+                    from++;
+                }
+                from++;
+            }
+            int to = Math.min(from + request.limit(), items.size());
+            QueryResponse.Builder response = QueryResponse.builder().items(items.subList(from, to));
+            if (to < items.size()) {
+                response.lastEvaluatedKey(items.get(to - 1));
+            }
+            return response.build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private static AttributeValue s(String value) {
+            return AttributeValue.builder().s(value).build();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingJwtDecoderTest {
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    private final AtomicInteger verifications = new AtomicInteger();
+    private Instant clockTime = NOW;
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return clockTime;
+        }
+    };
+
+    @Test
+    public void verifiesATokenOnceUntilItExpires() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(expiringIn(Duration.ofMinutes(5)), 10, clock);
+
+        Jwt first = decoder.decode("token");
+        Jwt second = decoder.decode("token");
+        clockTime = NOW.plus(Duration.ofMinutes(5));
+        Jwt afterExpiry = decoder.decode("token");
+
+        assertSame(first, second);
+        assertNotSame(first, afterExpiry);
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    public void doesNotCacheRejectedTokens() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(token -> {
+            verifications.incrementAndGet();
+            throw new BadJwtException("Rejected " + token);
+        }, 10, clock);
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+        assertEquals(2, verifications.get());
+        assertEquals(0, decoder.size());
+    }
+
+    @Test
+    public void staysWithinMaxEntries() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(expiringIn(Duration.ofMinutes(5)), 2, clock);
+
+        decoder.decode("a");
+        decoder.decode("b");
+        decoder.decode("c");
+        decoder.decode("c");
+
+        assertEquals(2, decoder.size());
+        assertEquals(3, verifications.get());
+    }
+
+    private JwtDecoder expiringIn(Duration lifetime) {
+        return token -> {
+            verifications.incrementAndGet();
+            return Jwt.withTokenValue(token)
+                    .header("alg", "RS256")
+                    .subject(token)
+                    .issuedAt(clockTime.minusSeconds(1))
+                    .expiresAt(clockTime.plus(lifetime))
+                    .build();
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentJwkSourceTest {
+    @TempDir
+    Path directory;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @Test
+    public void startsFromTheFileAnEarlierProcessLeftBehind() throws Exception {
+        Path file = directory.resolve("jwks.json");
+        RSAKey key = generateKey("one");
+        get(source(file, publishing(key)), "one");
+
+        List<JWK> keys = get(source(file, () -> {
+            throw new IOException("Offline");
+        }), "one");
+
+        assertEquals(1, keys.size());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void refetchesWhenATokenNamesAnUnknownKey() throws Exception {
+        RSAKey one = generateKey("one");
+        RSAKey two = generateKey("two");
+        AtomicReference<RSAKey> published = new AtomicReference<>(one);
+        PersistentJwkSource source = source(directory.resolve("jwks.json"), () -> {
+            fetches.incrementAndGet();
+            return new JWKSet(published.get().toPublicJWK()).toString();
+        });
+        get(source, "one");
+
+        published.set(two);
+        nanoTime.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertEquals(1, get(source, "two").size());
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void refetchesUnknownKeysAtMostOncePerMinRefreshInterval() throws Exception {
+        PersistentJwkSource source = source(directory.resolve("jwks.json"), publishing(generateKey("one")));
+        get(source, "one");
+
+        assertTrue(get(source, "unknown").isEmpty());
+        nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(get(source, "unknown").isEmpty());
+        assertEquals(1, fetches.get());
+
+        nanoTime.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertTrue(get(source, "unknown").isEmpty());
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void failsWithoutAnyKeys() {
+        PersistentJwkSource source = source(directory.resolve("jwks.json"), () -> {
+            throw new IOException("Offline");
+        });
+
+        assertThrows(KeySourceException.class, () -> get(source, "one"));
+    }
+
+    private PersistentJwkSource source(Path file, Callable<String> fetcher) {
+        return new PersistentJwkSource(fetcher, file, Duration.ofMinutes(1), nanoTime::get);
+    }
+
+    private Callable<String> publishing(RSAKey key) {
+        return () -> {
+            fetches.incrementAndGet();
+            return new JWKSet(key.toPublicJWK()).toString();
+        };
+    }
+
+    private static List<JWK> get(PersistentJwkSource source, String keyId) throws KeySourceException {
+        return source.get(new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build()), null);
+    }
+
+    private static RSAKey generateKey(String keyId) throws JOSEException {
+        return new RSAKeyGenerator(2048).keyID(keyId).generate();
+    }
+}
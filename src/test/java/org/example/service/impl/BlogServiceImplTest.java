@@ -0,0 +1,215 @@
+package org.example.service.impl;
+
+import org.example.dto.BatchUploadResponse;
+import org.example.dto.BulkActionResponse;
+import org.example.dto.ImageUploadRequest;
+import org.example.dto.PreSignedUrlResponse;
+import org.example.dto.UploadJobResponse;
+import org.example.dto.UploadSessionRequest;
+import org.example.dto.UploadSessionResponse;
+import org.example.exception.CustomBadRequestException;
+import org.example.mapper.BlogPostMapper;
+import org.example.model.BlogPost;
+import org.example.repository.impl.BlogRepositoryImpl;
+import org.example.service.S3Service;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlogServiceImplTest {
+    private static final String TABLE = "photo-blog";
+    private static final String OWNER = "jane@example.com";
+
+    @Test
+    public void moveToRecycleBin_transactionFails_deletesTheCopies() throws Exception {
+        Table table = new Table(false);
+        table.add("photo-1");
+        RecordingS3Service s3Service = new RecordingS3Service();
+
+        BulkActionResponse response = service(table, s3Service).moveToOrRestoreFromRecycleBin(List.of("photo-1"), OWNER, true);
+
+        assertEquals(1, response.failed());
+        assertEquals("Failed to move to recycle bin", response.items().get(0).message());
+        assertEquals(List.of("recycle-bin/photo-1"), s3Service.copies);
+        assertEquals(List.of("recycle-bin/photo-1"), s3Service.deleted);
+        assertEquals("photo-1", table.items.get("photo-1").get("imageKey").s());
+    }
+
+    @Test
+    public void moveToRecycleBin_transactionFailsAfterApplying_deletesTheSources() throws Exception {
+        Table table = new Table(true);
+        table.add("photo-1");
+        RecordingS3Service s3Service = new RecordingS3Service();
+
+        BulkActionResponse response = service(table, s3Service).moveToOrRestoreFromRecycleBin(List.of("photo-1"), OWNER, true);
+
+        assertEquals(1, response.succeeded());
+        assertEquals(List.of("photo-1"), s3Service.deleted);
+        assertEquals("recycle-bin/photo-1", table.items.get("photo-1").get("imageKey").s());
+    }
+
+    @Test
+    public void restoreFromRecycleBin_notRecycled_keepsTheReason() throws Exception {
+        Table table = new Table(false);
+        table.add("photo-1");
+        RecordingS3Service s3Service = new RecordingS3Service();
+
+        CustomBadRequestException e = assertThrows(CustomBadRequestException.class,
+                () -> service(table, s3Service).moveToOrRestoreFromRecycleBin("photo-1", OWNER, false));
+
+        assertEquals("Blog post is not in the recycle bin", e.getMessage());
+        assertEquals(List.of(), s3Service.copies);
+    }
+
+    @Test
+    public void moveToRecycleBin_missingPost_keepsTheReason() throws Exception {
+        Table table = new Table(false);
+
+        CustomBadRequestException e = assertThrows(CustomBadRequestException.class,
+                () -> service(table, new RecordingS3Service()).moveToOrRestoreFromRecycleBin("photo-1", OWNER, true));
+
+        assertEquals("Blog post does not exist", e.getMessage());
+    }
+
+    private static BlogServiceImpl service(Table table, S3Service s3Service) throws ReflectiveOperationException {
+        BlogPostMapper mapper = new BlogPostMapper();
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder().dynamoDbClient(table).build();
+        BlogRepositoryImpl repository = new BlogRepositoryImpl(mapper, enhancedClient, table, null);
+        Field tableName = BlogRepositoryImpl.class.getDeclaredField("tableName");
+        tableName.setAccessible(true);
+        tableName.set(repository, TABLE);
+        return new BlogServiceImpl(repository, null, s3Service, null, null, mapper);
+    }
+
+    /**
+     * Posts by photo id. Every transaction fails with a server error, optionally after it has been applied.
+     */
+    private static class Table implements DynamoDbClient {
+        private final Map<String, Map<String, AttributeValue>> items = new HashMap<>();
+        private final boolean applyBeforeFailing;
+
+        Table(boolean applyBeforeFailing) {
+            this.applyBeforeFailing = applyBeforeFailing;
+        }
+
+        void add(String photoId) {
+            BlogPost blogPost = BlogPost.builder().pk(photoId).sk(OWNER).imageKey(photoId).type(BlogPost.typeShard(photoId)).owner(OWNER).build();
+            items.put(photoId, new HashMap<>(BlogRepositoryImpl.TABLE_SCHEMA.itemToMap(blogPost, true)));
+        }
+
+        @Override
+        public GetItemResponse getItem(GetItemRequest request) {
+            Map<String, AttributeValue> item = items.get(request.key().get("pk").s());
+            return item != null ? GetItemResponse.builder().item(item).build() : GetItemResponse.builder().build();
+        }
+
+        @Override
+        public BatchGetItemResponse batchGetItem(BatchGetItemRequest request) {
+            List<Map<String, AttributeValue>> found = new ArrayList<>();
+            request.requestItems().get(TABLE).keys().forEach(key -> {
+                Map<String, AttributeValue> item = items.get(key.get("pk").s());
+                if (item != null) {
+                    found.add(item);
+                }
+            });
+            return BatchGetItemResponse.builder().responses(Map.of(TABLE, found)).build();
+        }
+
+        @Override
+        public TransactWriteItemsResponse transactWriteItems(TransactWriteItemsRequest request) {
+            if (applyBeforeFailing) {
+                request.transactItems().forEach(transactItem -> {
+                    Update update = transactItem.update();
+                    Map<String, AttributeValue> item = items.get(update.key().get("pk").s());
+                    item.put("deleteStatus", update.expressionAttributeValues().get(":deleteStatus"));
+                    item.put("imageKey", update.expressionAttributeValues().get(":imageKey"));
+                });
+            }
+            throw (DynamoDbException) DynamoDbException.builder().message("Internal server error").statusCode(500).build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class RecordingS3Service implements S3Service {
+        private final List<String> copies = new ArrayList<>();
+        private final List<String> deleted = new ArrayList<>();
+
+        @Override
+        public void moveObject(String sourceKey, String destinationKey) {
+            copies.add(destinationKey);
+        }
+
+        @Override
+        public Set<String> deleteObjects(Collection<String> objectKeys) {
+            deleted.addAll(objectKeys);
+            return Set.of();
+        }
+
+        @Override
+        public void deleteObject(String objectKey) {
+            deleted.add(objectKey);
+        }
+
+        @Override
+        public UploadJobResponse uploadImage(ImageUploadRequest imageUploadRequest, String userEmail, String fullName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UploadSessionResponse createUploadSession(UploadSessionRequest uploadSessionRequest, String userEmail, String fullName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BatchUploadResponse createUploadSessions(List<UploadSessionRequest> uploadSessionRequests, String userEmail, String fullName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UploadSessionResponse resumeUploadSession(String jobId, String contentType, String userEmail, String fullName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UploadJobResponse completeUploadSession(String jobId, String userEmail) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void abortUploadSession(String jobId, String userEmail) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PreSignedUrlResponse generatePreSignedUrl(String objectKey) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
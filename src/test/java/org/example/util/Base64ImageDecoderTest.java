@@ -0,0 +1,42 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Base64ImageDecoderTest {
+
+    @Test
+    public void decode_paddedAndUnpadded_matchesJdkDecoder() {
+        Random random = new Random(42);
+        for (int length = 0; length < 64; length++) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            String padded = Base64.getEncoder().encodeToString(bytes);
+            String unpadded = Base64.getEncoder().withoutPadding().encodeToString(bytes);
+
+            assertEquals(length, Base64ImageDecoder.decodedLength(padded));
+            assertEquals(length, Base64ImageDecoder.decodedLength(unpadded));
+            assertArrayEquals(bytes, Base64ImageDecoder.decode(padded));
+            assertArrayEquals(bytes, Base64ImageDecoder.decode(unpadded));
+        }
+    }
+
+    @Test
+    public void decode_illegalCharacters_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> Base64ImageDecoder.decode("ab-d"));
+        assertThrows(IllegalArgumentException.class, () -> Base64ImageDecoder.decode("ab d"));
+        assertThrows(IllegalArgumentException.class, () -> Base64ImageDecoder.decode("ab\u00e9="));
+        assertThrows(IllegalArgumentException.class, () -> Base64ImageDecoder.decode("a=bc"));
+        assertThrows(IllegalArgumentException.class, () -> Base64ImageDecoder.decode("a==="));
+    }
+
+    @Test
+    public void decodedLength_invalidLengthOrPadding_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> Base64ImageDecoder.decodedLength("abcde"));
+        assertThrows(IllegalArgumentException.class, () -> Base64ImageDecoder.decodedLength("abc=="));
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchesTest {
+
+    @Test
+    public void partition_splitsIntoBatchesOfAtMostSize() {
+        assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(5)), Batches.partition(List.of(1, 2, 3, 4, 5), 2));
+        assertEquals(List.of(List.of(1, 2)), Batches.partition(List.of(1, 2), 25));
+        assertTrue(Batches.partition(List.of(), 25).isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.exception.CustomBadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonPageWriterTest {
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private int status;
+
+    @Test
+    public void write_itemsFromAnotherThread_writesPage() throws Exception {
+        JsonPageWriter.<Map<String, Object>>write(response(), new ObjectMapper(), consumer -> CompletableFuture.supplyAsync(() -> {
+            consumer.accept(Map.of("pk", "a"));
+            consumer.accept(Map.of("pk", "b"));
+            return "next";
+        }));
+
+        assertEquals(200, status);
+        assertEquals("{\"items\":[{\"pk\":\"a\"},{\"pk\":\"b\"}],\"nextCursor\":\"next\"}", body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_lastPage_writesNullCursor() throws Exception {
+        JsonPageWriter.write(response(), new ObjectMapper(), consumer -> CompletableFuture.completedFuture(null));
+
+        assertEquals("{\"items\":[],\"nextCursor\":null}", body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_failureBeforeFirstItem_throwsWithoutWriting() {
+        assertThrows(CustomBadRequestException.class, () -> JsonPageWriter.write(response(), new ObjectMapper(),
+                consumer -> CompletableFuture.failedFuture(new CustomBadRequestException("Invalid cursor"))));
+
+        assertEquals(0, status);
+        assertEquals(0, body.size());
+    }
+
+    private HttpServletResponse response() {
+        ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{HttpServletResponse.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getOutputStream" -> out;
+                    case "setStatus" -> {
+                        status = (int) args[0];
+                        yield null;
+                    }
+                    default -> null;
+                });
+    }
+}
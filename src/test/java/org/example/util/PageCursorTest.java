@@ -0,0 +1,40 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageCursorTest {
+
+    @Test
+    public void encode_lastEvaluatedKey_roundTrips() {
+        Map<String, AttributeValue> key = new LinkedHashMap<>();
+        key.put("pk", AttributeValue.builder().s("3f2a-photo").build());
+        key.put("sk", AttributeValue.builder().s("jane+doe@example.com").build());
+        key.put("uploadDate", AttributeValue.builder().s("2025-01-01T12:00:00.123").build());
+
+        String cursor = PageCursor.encode(key);
+
+        assertFalse(cursor.contains("="));
+        assertEquals(key, PageCursor.decode(cursor));
+    }
+
+    @Test
+    public void encode_noMorePages_returnsNull() {
+        assertNull(PageCursor.encode(null));
+        assertNull(PageCursor.encode(Map.of()));
+        assertNull(PageCursor.decode(null));
+    }
+
+    @Test
+    public void decode_malformedCursor_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(Base64.getUrlEncoder().encodeToString("garbage".getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TtlCacheTest {
+
+    @Test
+    public void get_concurrentMisses_loadOnce() throws Exception {
+        TtlCache<String, Integer> cache = new TtlCache<>(Duration.ofMinutes(1), 10);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] results = new Future<?>[4];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = executor.submit(() -> cache.get("feed", key -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return 42;
+                }));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<?> result : results) {
+                assertEquals(42, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().misses());
+        assertEquals(3, cache.stats().hits());
+    }
+
+    @Test
+    public void get_afterTtlOrInvalidation_reloads() {
+        AtomicLong clock = new AtomicLong();
+        TtlCache<String, Integer> cache = new TtlCache<>(Duration.ofSeconds(30), 10, clock::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a@example.com", key -> loads.incrementAndGet());
+        clock.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertEquals(1, cache.get("a@example.com", key -> loads.incrementAndGet()));
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(2, cache.get("a@example.com", key -> loads.incrementAndGet()));
+
+        cache.invalidateIf(key -> key.startsWith("a@"));
+        assertEquals(3, cache.get("a@example.com", key -> loads.incrementAndGet()));
+    }
+
+    @Test
+    public void get_failedLoad_isNotCached() {
+        TtlCache<String, Integer> cache = new TtlCache<>(Duration.ofMinutes(1), 10);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("feed", key -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(7, cache.get("feed", key -> 7));
+        assertEquals(1, cache.stats().loadFailures());
+    }
+
+    @Test
+    public void get_overCapacity_evictsOldest() {
+        AtomicLong clock = new AtomicLong();
+        TtlCache<Integer, Integer> cache = new TtlCache<>(Duration.ofMinutes(1), 2, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            clock.incrementAndGet();
+            cache.get(i, key -> key);
+        }
+
+        assertEquals(2, cache.stats().size());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}